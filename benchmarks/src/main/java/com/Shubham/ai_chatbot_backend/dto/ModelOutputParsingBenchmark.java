@@ -0,0 +1,82 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of the JSON line each Python script prints into its result record.
+ *
+ * The *AsMap variants parse the same line into a generic Map, which is what the
+ * services did before the typed DTOs, and are kept as the comparison point.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelOutputParsingBenchmark {
+
+    private static final String SALARY_OUTPUT = "{\"success\": true, \"salary\": 98500, \"salaryUSD\": 59700, "
+            + "\"currency\": \"NZD\", \"confidence\": 86, \"model\": \"RandomForest_Single_v1.0\", "
+            + "\"ml_model_status\": \"success\", \"exchangeRate\": 1.65, \"factors\": [\"Role: Software Developer\", "
+            + "\"5 years experience\", \"Location: New Zealand\", \"Education: Bachelor\", \"3 skills\"], "
+            + "\"predictionDetails\": {\"baseSalaryUSD\": 59700, \"localCurrencySalary\": 98500, \"currencyUsed\": \"NZD\"}}";
+
+    private static final String SENTIMENT_OUTPUT = "{\"success\": true, \"sentiment\": \"Positive\", \"confidence\": 91.37, "
+            + "\"analysis\": \"The text shows positive sentiment with 91.4% confidence\", \"textLength\": 42, "
+            + "\"wordCount\": 8, \"model\": \"NaiveBayes_Sentiment_v1.0\"}";
+
+    private static final String WEATHER_OUTPUT = "{\"success\": true, \"predictedTemperature\": 20.8, \"predictedRainfall\": 3.4, "
+            + "\"weatherCondition\": \"Light Rain\", \"confidence\": 82, \"model\": \"RandomForest_Weather_v1.0\", "
+            + "\"source\": \"ml_model\", \"ml_model_status\": \"success\", \"factors\": [\"High humidity\", "
+            + "\"Falling pressure\"], \"location\": \"Dunedin, New Zealand\"}";
+
+    private static final String CAR_OUTPUT = "{\"success\": true, \"predicted_brand\": \"Toyota\", \"confidence\": 87.2, "
+            + "\"all_predictions\": [{\"brand\": \"Toyota\", \"confidence\": 87.2}, {\"brand\": \"Honda\", "
+            + "\"confidence\": 8.1}, {\"brand\": \"Ford\", \"confidence\": 2.3}], \"model\": \"Car_Recognizer_v1.0\", "
+            + "\"image_size\": \"1024x768\"}";
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    // Same leniency as the Spring Boot auto-configured mapper the services receive
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Benchmark
+    public SalaryPrediction salary() throws Exception {
+        return objectMapper.readValue(SALARY_OUTPUT, SalaryPrediction.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> salaryAsMap() throws Exception {
+        return objectMapper.readValue(SALARY_OUTPUT, MAP_TYPE);
+    }
+
+    @Benchmark
+    public SentimentResult sentiment() throws Exception {
+        return objectMapper.readValue(SENTIMENT_OUTPUT, SentimentResult.class);
+    }
+
+    @Benchmark
+    public WeatherPrediction weather() throws Exception {
+        return objectMapper.readValue(WEATHER_OUTPUT, WeatherPrediction.class);
+    }
+
+    @Benchmark
+    public CarRecognitionResult car() throws Exception {
+        return objectMapper.readValue(CAR_OUTPUT, CarRecognitionResult.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> carAsMap() throws Exception {
+        return objectMapper.readValue(CAR_OUTPUT, MAP_TYPE);
+    }
+}
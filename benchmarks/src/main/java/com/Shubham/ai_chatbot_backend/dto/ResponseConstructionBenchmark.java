@@ -0,0 +1,60 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing a response body, as the controllers do on every request.
+ *
+ * The *Map variants build the same body as a HashMap, the way the controllers did
+ * before the typed response records, and are kept as the comparison point.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseConstructionBenchmark {
+
+    private static final String REPLY = "Hello! How can I help you today?";
+    private static final String SESSION_ID = "default";
+    private static final String TIMESTAMP = "Mon Oct 19 12:00:00 UTC 2026";
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    @Benchmark
+    public byte[] chatRecord() throws Exception {
+        return objectMapper.writeValueAsBytes(new ChatResponse(REPLY, "success", SESSION_ID, TIMESTAMP, "custom"));
+    }
+
+    @Benchmark
+    public byte[] chatMap() throws Exception {
+        Map<String, Object> response = new HashMap<>();
+        response.put("response", REPLY);
+        response.put("status", "success");
+        response.put("sessionId", SESSION_ID);
+        response.put("timestamp", TIMESTAMP);
+        response.put("model", "custom");
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] errorRecord() throws Exception {
+        return objectMapper.writeValueAsBytes(SalaryPrediction.failure("Prediction failed",
+                "ML service unavailable. Please try again later.", null));
+    }
+
+    @Benchmark
+    public byte[] errorMap() throws Exception {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", "Prediction failed");
+        response.put("message", "ML service unavailable. Please try again later.");
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,29 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Every chat message goes through the canned-answer matcher before OpenAI is considered
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomResponseBenchmark {
+
+    // First rule, last rule, and a miss that scans every rule before falling through to OpenAI
+    @Param({
+            "Who are you?",
+            "Ok bye then",
+            "Can you explain how a B-tree index keeps lookups logarithmic as the table grows?"
+    })
+    private String message;
+
+    private final OpenAIService openAIService = new OpenAIService();
+
+    @Benchmark
+    public String customResponse() {
+        return openAIService.getCustomResponse(message);
+    }
+}
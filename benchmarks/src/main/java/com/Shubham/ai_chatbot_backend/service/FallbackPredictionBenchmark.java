@@ -0,0 +1,49 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.dto.SalaryPrediction;
+import com.Shubham.ai_chatbot_backend.dto.WeatherPrediction;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The Java fallbacks answer whenever the Python model is unavailable or returns garbage
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FallbackPredictionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SalaryInput {
+
+        @Param({"Software Developer|New Zealand", "Data Scientist|United States", "Unknown Role|Mars"})
+        private String roleAndLocation;
+
+        private String role;
+        private String location;
+
+        @Setup
+        public void setup() {
+            String[] parts = roleAndLocation.split("\\|");
+            this.role = parts[0];
+            this.location = parts[1];
+        }
+    }
+
+    private final SalaryPredictionService salaryService = new SalaryPredictionService();
+    private final WeatherPredictionService weatherService = new WeatherPredictionService();
+
+    private final List<String> skills = List.of("Java", "Spring", "SQL", "Docker", "AWS");
+
+    @Benchmark
+    public SalaryPrediction salaryFallback(SalaryInput input) {
+        return salaryService.fallbackSalaryPrediction(5, input.role, input.location, "Bachelor", skills);
+    }
+
+    @Benchmark
+    public WeatherPrediction weatherFallback() {
+        return weatherService.enhancedFallbackWeatherPrediction(21.5, 75.0, 15.0, 1012.0, 0.5);
+    }
+}
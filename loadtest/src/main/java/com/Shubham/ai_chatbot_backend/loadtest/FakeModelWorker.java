@@ -0,0 +1,70 @@
+package com.Shubham.ai_chatbot_backend.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Locale;
+
+/**
+ * Writes a shell script that stands in for the Python interpreter (model.python).
+ *
+ * The backend still spawns one process per model call, so process-start cost and the
+ * stdout protocol are exercised for real; only the model itself is replaced by a
+ * log-normal sleep followed by the TIMINGS line and a canned result per script.
+ */
+public final class FakeModelWorker {
+
+    private static final String TEMPLATE = """
+            #!/bin/sh
+            # Fake model worker generated by the load test. $1 = model script, $2 = input file
+            read delay_ms delay_s <<EOF
+            $(awk -v mu=@MU@ -v sigma=@SIGMA@ -v seed="$$" 'BEGIN {
+                srand(seed); u = rand(); if (u < 1e-9) u = 1e-9
+                ms = exp(mu + sigma * sqrt(-2 * log(u)) * cos(6.283185307 * rand()))
+                printf "%.1f %.3f", ms, ms / 1000 }')
+            EOF
+            sleep "$delay_s"
+            echo "TIMINGS {\\"load_ms\\": 0, \\"inference_ms\\": $delay_ms}"
+            # Batch input: one canned result per image
+            if [ "$(basename "$1")" = car_recognition.py ] && grep -q '"images"' "$2"; then
+              count=$(grep -o '_path"' "$2" | wc -l)
+              item='{"success": true, "predicted_brand": "Toyota", "confidence": 87.2, "all_predictions": [{"brand": "Toyota", "confidence": 87.2}], "model": "Fake_Car", "image_size": "150x150"}'
+              printf '{"success": true, "results": ['
+              i=0
+              while [ "$i" -lt "$count" ]; do
+                [ "$i" -gt 0 ] && printf ', '
+                printf '%s' "$item"
+                i=$((i + 1))
+              done
+              echo ']}'
+              exit 0
+            fi
+            case "$(basename "$1")" in
+              ml_salary_predictor.py)
+                echo '{"success": true, "salary": 98500, "salaryUSD": 59700, "currency": "NZD", "confidence": 86, "model": "Fake_Salary", "ml_model_status": "success"}' ;;
+              sentiment_predictor.py)
+                echo '{"success": true, "sentiment": "Positive", "confidence": 88.5, "analysis": "fake", "textLength": 62, "wordCount": 12, "model": "Fake_Sentiment"}' ;;
+              weather_predictor.py)
+                echo '{"success": true, "predictedTemperature": 19.4, "predictedRainfall": 1.2, "weatherCondition": "Cloudy", "confidence": 80, "model": "Fake_Weather", "source": "ml_model"}' ;;
+              car_recognition.py)
+                echo '{"success": true, "predicted_brand": "Toyota", "confidence": 87.2, "all_predictions": [{"brand": "Toyota", "confidence": 87.2}], "model": "Fake_Car", "image_size": "640x480"}' ;;
+              *)
+                echo "{\\"success\\": false, \\"error\\": \\"fake worker has no canned output for $1\\"}"
+                exit 1 ;;
+            esac
+            """;
+
+    private FakeModelWorker() {
+    }
+
+    public static Path write(Path directory, LatencyDistribution latency) throws IOException {
+        Path script = directory.resolve("fake-python");
+        String body = TEMPLATE
+                .replace("@MU@", String.format(Locale.ROOT, "%.6f", latency.mu()))
+                .replace("@SIGMA@", String.format(Locale.ROOT, "%.6f", latency.sigma()));
+        Files.writeString(script, body);
+        Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-xr-x"));
+        return script;
+    }
+}
@@ -0,0 +1,47 @@
+package com.Shubham.ai_chatbot_backend.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log-normal latency described the way people quote it: "median 200ms, p99 1500ms".
+ *
+ * Service latencies are right-skewed, so a log-normal fitted to the median and p99
+ * gives a far more realistic tail than a fixed delay or a uniform range.
+ */
+public record LatencyDistribution(double medianMillis, double p99Millis) {
+
+    // z-score of the 99th percentile of a standard normal
+    private static final double Z_99 = 2.326;
+
+    public LatencyDistribution {
+        if (medianMillis < 0 || p99Millis < medianMillis) {
+            throw new IllegalArgumentException("Expected 0 <= median <= p99, got " + medianMillis + "/" + p99Millis);
+        }
+    }
+
+    // Parses "median/p99" in milliseconds, e.g. "200/1500"; a single number means a fixed delay
+    public static LatencyDistribution parse(String spec) {
+        String[] parts = spec.split("/");
+        double median = Double.parseDouble(parts[0].trim());
+        double p99 = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : median;
+        return new LatencyDistribution(median, p99);
+    }
+
+    public double mu() {
+        return Math.log(Math.max(medianMillis, 0.001));
+    }
+
+    public double sigma() {
+        return medianMillis == 0 ? 0 : (Math.log(p99Millis) - mu()) / Z_99;
+    }
+
+    public long sampleMillis() {
+        double z = ThreadLocalRandom.current().nextGaussian();
+        return Math.round(Math.exp(mu() + sigma() * z));
+    }
+
+    @Override
+    public String toString() {
+        return "median " + (long) medianMillis + "ms / p99 " + (long) p99Millis + "ms";
+    }
+}
@@ -0,0 +1,150 @@
+package com.Shubham.ai_chatbot_backend.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model request driver.
+ *
+ * Arrivals are scheduled at a fixed rate and latency is measured from the time a
+ * request was due, not when it was actually sent, so a stalled server shows up as
+ * queueing delay instead of being hidden by the generator slowing down with it.
+ */
+public class LoadGenerator implements AutoCloseable {
+
+    static final String OVERLOAD = "client overload (max-in-flight)";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final URI base;
+    private final LoadTestOptions options;
+    private final List<TestUser> users;
+    private final ExecutorService callbacks;
+    private final HttpClient client;
+    private final Operation[] operations;
+    private final double[] cumulativeWeights;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadGenerator(URI base, LoadTestOptions options, List<TestUser> users) {
+        this.base = base;
+        this.options = options;
+        this.users = users;
+        this.callbacks = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "load-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(callbacks)
+                .build();
+
+        List<Operation> ops = new ArrayList<>(options.mix().keySet());
+        this.operations = ops.toArray(new Operation[0]);
+        this.cumulativeWeights = new double[operations.length];
+        double total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /** Runs for the given number of seconds and returns per-operation stats once every request has settled. */
+    public Map<Operation, OperationStats> run(int seconds) {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation op : operations) {
+            stats.put(op, new OperationStats());
+        }
+
+        Phaser outstanding = new Phaser(1);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rps();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        for (long due = start; due < end; due += intervalNanos) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation op = pickOperation();
+            OperationStats opStats = stats.get(op);
+            if (inFlight.get() >= options.maxInFlight()) {
+                opStats.recordRejected(OVERLOAD);
+                continue;
+            }
+
+            TestUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+            HttpRequest request = HttpRequest.newBuilder(op.build(base, user), (name, value) -> true)
+                    .timeout(REQUEST_TIMEOUT)
+                    .build();
+
+            long dueAt = due;
+            inFlight.incrementAndGet();
+            outstanding.register();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - dueAt;
+                        String error = failure != null ? describe(failure) : classify(response);
+                        if (error == null) {
+                            opStats.recordSuccess(latency);
+                        } else {
+                            opStats.recordError(latency, error);
+                        }
+                        inFlight.decrementAndGet();
+                        outstanding.arriveAndDeregister();
+                    });
+        }
+
+        outstanding.arriveAndAwaitAdvance();
+        return stats;
+    }
+
+    private Operation pickOperation() {
+        double roll = ThreadLocalRandom.current().nextDouble(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    // The API reports most failures as 200 with success:false or an "error" field
+    static String classify(HttpResponse<String> response) {
+        if (response.statusCode() >= 400) {
+            return "HTTP " + response.statusCode();
+        }
+        String body = response.body();
+        if (body.contains("\"success\":false") || body.contains("\"error\":")) {
+            return "error body";
+        }
+        return null;
+    }
+
+    private static String describe(Throwable failure) {
+        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+        return cause instanceof HttpTimeoutException ? "timeout" : cause.getClass().getSimpleName();
+    }
+
+    @Override
+    public void close() {
+        callbacks.shutdownNow();
+    }
+}
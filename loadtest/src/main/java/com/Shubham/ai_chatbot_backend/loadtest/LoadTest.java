@@ -0,0 +1,139 @@
+package com.Shubham.ai_chatbot_backend.loadtest;
+
+import com.Shubham.ai_chatbot_backend.AiChatbotBackendApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Boots the backend with local stand-ins for all of its dependencies and reports
+ * latency percentiles and error rates for a configurable request mix.
+ *
+ * Run from the repository root (the services look for src/main/resources/models).
+ * Exits non-zero when max-p99-ms or max-error-rate is exceeded, so it can gate a build.
+ */
+public final class LoadTest {
+
+    private static final Pattern SESSION_TOKEN = Pattern.compile("\"sessionToken\":\"([^\"]+)\"");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (!Files.isDirectory(Path.of("src/main/resources/models"))) {
+            throw new IllegalStateException("Run the load test from the repository root");
+        }
+
+        Path workDir = Files.createTempDirectory("chatbot-load-test");
+        boolean passed;
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             StubOpenAIServer openAi = new StubOpenAIServer(options.openAiLatency())) {
+
+            Path fakePython = FakeModelWorker.write(workDir, options.modelLatency());
+            ConfigurableApplicationContext app = new SpringApplicationBuilder(AiChatbotBackendApplication.class)
+                    .run(
+                            "--server.port=0",
+                            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                            "--spring.datasource.username=postgres",
+                            "--spring.datasource.password=postgres",
+                            "--openai.api.key=load-test",
+                            "--openai.api.base-url=" + openAi.baseUrl(),
+                            "--model.python=" + fakePython,
+                            // The fake worker is a shell script, not an interpreter a zygote could fork from
+                            "--model.zygote.enabled=false",
+                            // Capacity is what we are measuring, not the per-user limits
+                            "--ratelimit.enabled=false",
+                            "--logging.level.root=WARN",
+                            "--logging.level.com.Shubham.ai_chatbot_backend=WARN");
+
+            try {
+                URI base = URI.create("http://127.0.0.1:" + app.getEnvironment().getProperty("local.server.port"));
+                System.out.printf("Backend up on %s; OpenAI stub %s, model workers %s%n",
+                        base, options.openAiLatency(), options.modelLatency());
+
+                HttpClient setupClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                List<TestUser> users = registerUsers(setupClient, base, options.users());
+
+                try (LoadGenerator load = new LoadGenerator(base, options, users)) {
+                    if (options.warmupSeconds() > 0) {
+                        System.out.printf("Warming up for %ds at %d rps...%n", options.warmupSeconds(), options.rps());
+                        load.run(options.warmupSeconds());
+                    }
+                    System.out.printf("Measuring for %ds at %d rps...%n", options.durationSeconds(), options.rps());
+                    Map<Operation, OperationStats> stats = load.run(options.durationSeconds());
+                    passed = report(stats, options, openAi);
+                }
+            } finally {
+                app.close();
+            }
+        }
+
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static List<TestUser> registerUsers(HttpClient client, URI base, int count) throws Exception {
+        List<TestUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TestUser user = new TestUser("loaduser" + i, "loaduser" + i + "@example.test", "load-test-password-" + i, null);
+
+            send(client, Operation.json(base, "/api/auth/register", null,
+                    "{\"username\":\"" + user.username() + "\",\"email\":\"" + user.email()
+                            + "\",\"password\":\"" + user.password() + "\"}"));
+
+            String login = send(client, Operation.LOGIN.build(base, user));
+            Matcher token = SESSION_TOKEN.matcher(login);
+            if (!token.find()) {
+                throw new IllegalStateException("Login failed for " + user.email() + ": " + login);
+            }
+            users.add(user.withSessionToken(token.group(1)));
+        }
+        return users;
+    }
+
+    private static String send(HttpClient client, HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static boolean report(Map<Operation, OperationStats> stats, LoadTestOptions options, StubOpenAIServer openAi) {
+        boolean passed = true;
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-10s %8s %8s %8s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "error%", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats s = entry.getValue();
+            System.out.printf(Locale.ROOT, "%-10s %8d %8d %7.2f%% %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.getKey().key(), s.requests(), s.errors(), s.errorRate() * 100,
+                    s.percentileMillis(50), s.percentileMillis(99), s.percentileMillis(99.9), s.maxMillis());
+
+            if (options.maxP99Millis() > 0 && s.percentileMillis(99) > options.maxP99Millis()) {
+                System.out.printf("FAIL %s p99 %.1fms > %dms%n", entry.getKey().key(), s.percentileMillis(99), options.maxP99Millis());
+                passed = false;
+            }
+            if (s.errorRate() > options.maxErrorRate()) {
+                System.out.printf("FAIL %s error rate %.2f%% > %.2f%%%n", entry.getKey().key(),
+                        s.errorRate() * 100, options.maxErrorRate() * 100);
+                passed = false;
+            }
+        }
+
+        stats.forEach((op, s) -> s.errorReasons().forEach((reason, count) ->
+                System.out.printf("  %s: %d x %s%n", op.key(), count.sum(), reason)));
+        System.out.printf("OpenAI stub served %d completions%n", openAi.requestCount());
+        return passed;
+    }
+}
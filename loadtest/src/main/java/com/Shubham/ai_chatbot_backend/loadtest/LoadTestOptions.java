@@ -0,0 +1,82 @@
+package com.Shubham.ai_chatbot_backend.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for one load-test run, given as key=value arguments.
+ *
+ * rps=20               target arrival rate (open model - requests are sent on schedule
+ *                      whether or not earlier ones have completed)
+ * duration=60          measured seconds
+ * warmup=10            seconds at the same rate before measuring starts
+ * users=20             registered test users the traffic is spread over
+ * mix=chat:6,login:1,salary:1,sentiment:1,weather:1,car:1
+ *                      relative weight of each operation (car-batch, 4 photos per call, is opt-in)
+ * openai=400/2500      stub OpenAI latency, median/p99 ms
+ * model=150/900        fake model worker latency on top of process start, median/p99 ms
+ * max-in-flight=1000   requests allowed outstanding before new arrivals count as errors
+ * max-p99-ms=0         fail the run if any operation's p99 exceeds this (0 = off)
+ * max-error-rate=1     fail the run if any operation's error rate exceeds this fraction
+ */
+public record LoadTestOptions(
+        int rps,
+        int durationSeconds,
+        int warmupSeconds,
+        int users,
+        Map<Operation, Double> mix,
+        LatencyDistribution openAiLatency,
+        LatencyDistribution modelLatency,
+        int maxInFlight,
+        long maxP99Millis,
+        double maxErrorRate) {
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("rps", "20");
+        values.put("duration", "60");
+        values.put("warmup", "10");
+        values.put("users", "20");
+        values.put("mix", "chat:6,login:1,salary:1,sentiment:1,weather:1,car:1");
+        values.put("openai", "400/2500");
+        values.put("model", "150/900");
+        values.put("max-in-flight", "1000");
+        values.put("max-p99-ms", "0");
+        values.put("max-error-rate", "1");
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0 || !values.containsKey(arg.substring(0, eq))) {
+                throw new IllegalArgumentException("Unknown option '" + arg + "', expected one of " + values.keySet());
+            }
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+
+        return new LoadTestOptions(
+                Integer.parseInt(values.get("rps")),
+                Integer.parseInt(values.get("duration")),
+                Integer.parseInt(values.get("warmup")),
+                Integer.parseInt(values.get("users")),
+                parseMix(values.get("mix")),
+                LatencyDistribution.parse(values.get("openai")),
+                LatencyDistribution.parse(values.get("model")),
+                Integer.parseInt(values.get("max-in-flight")),
+                Long.parseLong(values.get("max-p99-ms")),
+                Double.parseDouble(values.get("max-error-rate")));
+    }
+
+    private static Map<Operation, Double> parseMix(String spec) {
+        Map<Operation, Double> mix = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split(":");
+            double weight = Double.parseDouble(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("mix must give at least one operation a positive weight");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,166 @@
+package com.Shubham.ai_chatbot_backend.loadtest;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One kind of request in the traffic mix, and how to build it for a given test user
+public enum Operation {
+
+    LOGIN("login") {
+        @Override
+        HttpRequest build(URI base, TestUser user) {
+            return json(base, "/api/auth/login", null,
+                    "{\"email\":\"" + user.email() + "\",\"password\":\"" + user.password() + "\"}");
+        }
+    },
+
+    CHAT("chat") {
+        @Override
+        HttpRequest build(URI base, TestUser user) {
+            // Half canned answers, half questions that go through to the (stub) OpenAI API
+            String message = ThreadLocalRandom.current().nextBoolean()
+                    ? CANNED_MESSAGES[ThreadLocalRandom.current().nextInt(CANNED_MESSAGES.length)]
+                    : OPEN_QUESTIONS[ThreadLocalRandom.current().nextInt(OPEN_QUESTIONS.length)];
+            return json(base, "/api/chat/send", user.sessionToken(),
+                    "{\"message\":\"" + message + "\",\"sessionId\":\"load-test\"}");
+        }
+    },
+
+    SALARY("salary") {
+        @Override
+        HttpRequest build(URI base, TestUser user) {
+            return json(base, "/api/ai-tools/salary-prediction", user.sessionToken(),
+                    "{\"experience\":" + ThreadLocalRandom.current().nextInt(0, 15)
+                            + ",\"role\":\"Software Developer\",\"location\":\"New Zealand\","
+                            + "\"education\":\"Bachelor\",\"skills\":[\"Java\",\"Spring\",\"SQL\"]}");
+        }
+    },
+
+    SENTIMENT("sentiment") {
+        @Override
+        HttpRequest build(URI base, TestUser user) {
+            return json(base, "/api/ai-tools/sentiment-analysis", user.sessionToken(),
+                    "{\"text\":\"The delivery was late but the support team sorted it out quickly\"}");
+        }
+    },
+
+    WEATHER("weather") {
+        @Override
+        HttpRequest build(URI base, TestUser user) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return json(base, "/api/ai-tools/weather-prediction", user.sessionToken(),
+                    "{\"temperature\":" + random.nextInt(0, 30) + ",\"humidity\":" + random.nextInt(40, 95)
+                            + ",\"windSpeed\":12.5,\"pressure\":1012,\"rainfall\":0.4}");
+        }
+    },
+
+    CAR("car") {
+        @Override
+        HttpRequest build(URI base, TestUser user) {
+            return photos(base, "/api/ai-tools/car-recognition", "image", 1, user);
+        }
+    },
+
+    CAR_BATCH("car-batch") {
+        @Override
+        HttpRequest build(URI base, TestUser user) {
+            return photos(base, "/api/ai-tools/car-recognition/batch", "images", 4, user);
+        }
+    };
+
+    private static final String[] CANNED_MESSAGES = {"hello", "who are you", "how are you", "thank you"};
+
+    private static final String[] OPEN_QUESTIONS = {
+            "Explain the difference between a process and a thread",
+            "What is a good way to learn SQL indexing?",
+            "Summarise the CAP theorem in two sentences"
+    };
+
+    // A real JPEG, so the backend's decode-and-downscale step is part of what gets measured
+    private static final byte[] PHOTO = syntheticPhoto(1600, 1200);
+
+    private final String key;
+
+    private static byte[] syntheticPhoto(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // Gradient plus noise, so the file is photo-sized rather than a trivially compressible block
+                int r = (x * 255 / width + random.nextInt(32)) & 0xFF;
+                int g = (y * 255 / height + random.nextInt(32)) & 0xFF;
+                int b = random.nextInt(256);
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        try {
+            ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+            ImageIO.write(image, "jpg", jpeg);
+            return jpeg.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static HttpRequest photos(URI base, String path, String field, int count, TestUser user) {
+        String boundary = "load-test-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (int i = 0; i < count; i++) {
+            body.writeBytes(("--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"car" + i + ".jpg\"\r\n"
+                    + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+
+            // Random bytes after the JPEG end marker: decoders ignore them, but every upload hashes
+            // differently, otherwise the backend's image-hash cache answers everything
+            byte[] salt = new byte[16];
+            ThreadLocalRandom.current().nextBytes(salt);
+            body.writeBytes(PHOTO);
+            body.writeBytes(salt);
+            body.writeBytes("\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        body.writeBytes(("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Authorization", user.sessionToken())
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    abstract HttpRequest build(URI base, TestUser user);
+
+    public static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(op -> op.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + key + "'"));
+    }
+
+    static HttpRequest json(URI base, String path, String sessionToken, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (sessionToken != null) {
+            builder.header("Authorization", sessionToken);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.Shubham.ai_chatbot_backend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram and error tally for one operation over the measured window
+public class OperationStats {
+
+    // 1us..5min at 3 significant digits
+    private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> errorReasons = new ConcurrentHashMap<>();
+
+    public void recordSuccess(long latencyNanos) {
+        latencyMicros.recordValue(clamp(latencyNanos));
+    }
+
+    // Failed requests still count towards latency: a fast error is not a fast success
+    public void recordError(long latencyNanos, String reason) {
+        latencyMicros.recordValue(clamp(latencyNanos));
+        recordRejected(reason);
+    }
+
+    // Never sent (client-side overload), so there is no latency to record
+    public void recordRejected(String reason) {
+        errors.increment();
+        errorReasons.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+
+    public long requests() {
+        return latencyMicros.getTotalCount() + rejected();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public double errorRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) errors() / requests;
+    }
+
+    public double percentileMillis(double percentile) {
+        return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double maxMillis() {
+        return latencyMicros.getMaxValue() / 1000.0;
+    }
+
+    public Map<String, LongAdder> errorReasons() {
+        return errorReasons;
+    }
+
+    private long rejected() {
+        LongAdder overload = errorReasons.get(LoadGenerator.OVERLOAD);
+        return overload == null ? 0 : overload.sum();
+    }
+
+    private long clamp(long latencyNanos) {
+        return Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)), latencyMicros.getHighestTrackableValue());
+    }
+}
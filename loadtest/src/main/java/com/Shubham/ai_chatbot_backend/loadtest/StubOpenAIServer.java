@@ -0,0 +1,110 @@
+package com.Shubham.ai_chatbot_backend.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the OpenAI completions endpoint.
+ *
+ * Answers POST /v1/completions with a well-formed completion after a delay drawn from
+ * the configured distribution, so the backend's client, timeouts and thread usage are
+ * exercised exactly as in production without network access or API spend. Requests
+ * with "stream":true get the same text as server-sent events, one word per event.
+ */
+public class StubOpenAIServer implements AutoCloseable {
+
+    private static final String COMPLETION_TEXT = " This is a stubbed completion used for load testing.";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LatencyDistribution latency;
+    private final AtomicLong requests = new AtomicLong();
+
+    public StubOpenAIServer(LatencyDistribution latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // One thread per in-flight call, like a remote API that never queues
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-openai");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/v1/completions", this::handleCompletion);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    private void handleCompletion(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        String request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        try {
+            Thread.sleep(latency.sampleMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (request.contains("\"stream\":true")) {
+            streamCompletion(exchange);
+            return;
+        }
+
+        int completionTokens = ThreadLocalRandom.current().nextInt(40, 200);
+        byte[] response = ("{\"id\":\"cmpl-load-test\",\"object\":\"text_completion\","
+                + "\"created\":" + (System.currentTimeMillis() / 1000) + ","
+                + "\"model\":\"gpt-3.5-turbo-instruct\","
+                + "\"choices\":[{\"text\":\"" + COMPLETION_TEXT + "\","
+                + "\"index\":0,\"logprobs\":null,\"finish_reason\":\"stop\"}],"
+                + "\"usage\":{\"prompt_tokens\":32,\"completion_tokens\":" + completionTokens
+                + ",\"total_tokens\":" + (32 + completionTokens) + "}}").getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    // Chunk format the OpenAI client's SSE reader expects, terminated by [DONE]
+    private void streamCompletion(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (String word : COMPLETION_TEXT.split("(?= )")) {
+                String chunk = "{\"id\":\"cmpl-load-test\",\"object\":\"text_completion\","
+                        + "\"created\":" + (System.currentTimeMillis() / 1000) + ","
+                        + "\"model\":\"gpt-3.5-turbo-instruct\","
+                        + "\"choices\":[{\"text\":\"" + word + "\",\"index\":0,\"logprobs\":null,\"finish_reason\":null}]}";
+                out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
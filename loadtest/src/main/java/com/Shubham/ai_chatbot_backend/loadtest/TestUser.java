@@ -0,0 +1,8 @@
+package com.Shubham.ai_chatbot_backend.loadtest;
+
+public record TestUser(String username, String email, String password, String sessionToken) {
+
+    public TestUser withSessionToken(String token) {
+        return new TestUser(username, email, password, token);
+    }
+}
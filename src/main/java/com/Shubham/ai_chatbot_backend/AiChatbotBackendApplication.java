@@ -1,17 +1,18 @@
 package com.Shubham.ai_chatbot_backend;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication
 public class AiChatbotBackendApplication {
 
+    private static final Logger log = LoggerFactory.getLogger(AiChatbotBackendApplication.class);
+
     public static void main(String[] args) {
         SpringApplication.run(AiChatbotBackendApplication.class, args);
-        System.out.println("🚀 AI Chatbot Backend Started on Railway!");
-        System.out.println("📍 Port: " + System.getenv("PORT"));
-        System.out.println("💬 API Endpoints: /api/chat, /api/auth, /api/ai-tools");
-        System.out.println("🔐 MySQL Database: Connected via Railway");
-        System.out.println("🌐 CORS: Configured for production");
+        log.info("AI Chatbot Backend started - port: {}, endpoints: /api/chat, /api/auth, /api/ai-tools",
+                System.getenv("PORT"));
     }
 }
\ No newline at end of file
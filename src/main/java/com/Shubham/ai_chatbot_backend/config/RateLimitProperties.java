@@ -0,0 +1,59 @@
+package com.Shubham.ai_chatbot_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked (user, endpoint) buckets; least valuable ones are evicted beyond it
+    private int maxBuckets = 10000;
+
+    // Used for any endpoint without its own entry in "endpoints"
+    private Limit defaults = new Limit(30, 30);
+
+    // Per-endpoint limits, e.g. ratelimit.endpoints.car-recognition.capacity=5
+    private Map<String, Limit> endpoints = new HashMap<>();
+
+    public Limit limitFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaults);
+    }
+
+    public static class Limit {
+        // Maximum burst size
+        private int capacity;
+        // Sustained rate the bucket refills at
+        private int refillPerMinute;
+
+        public Limit() {}
+
+        public Limit(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
+
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+
+        public int getRefillPerMinute() { return refillPerMinute; }
+        public void setRefillPerMinute(int refillPerMinute) { this.refillPerMinute = refillPerMinute; }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getMaxBuckets() { return maxBuckets; }
+    public void setMaxBuckets(int maxBuckets) { this.maxBuckets = maxBuckets; }
+
+    public Limit getDefaults() { return defaults; }
+    public void setDefaults(Limit defaults) { this.defaults = defaults; }
+
+    public Map<String, Limit> getEndpoints() { return endpoints; }
+    public void setEndpoints(Map<String, Limit> endpoints) { this.endpoints = endpoints; }
+}
@@ -0,0 +1,19 @@
+package com.Shubham.ai_chatbot_backend.config;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Lets only a fraction of requests emit their per-request debug detail
+@Component
+public class RequestLogSampler {
+
+    @Value("${logging.request-sample-rate:0.01}")
+    private double sampleRate;
+
+    // Cheap when debug is off: the level check short-circuits before any random draw
+    public boolean sample(Logger log) {
+        return log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
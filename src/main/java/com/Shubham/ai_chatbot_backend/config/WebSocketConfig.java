@@ -0,0 +1,41 @@
+package com.Shubham.ai_chatbot_backend.config;
+
+import com.Shubham.ai_chatbot_backend.controller.ChatWebSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    @Autowired
+    private ChatWebSocketHandler chatWebSocketHandler;
+
+    @Value("${chat.ws.idle-timeout-seconds:300}")
+    private long idleTimeoutSeconds;
+
+    @Value("${chat.ws.max-message-kb:16}")
+    private int maxMessageKb;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(chatWebSocketHandler, "/ws/chat")
+                .addInterceptors(chatWebSocketHandler)
+                .setAllowedOriginPatterns("*");  // Same as the REST CORS mapping
+    }
+
+    // Container-level limits: idle connections are closed, oversized frames rejected
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxSessionIdleTimeout(idleTimeoutSeconds * 1000);
+        container.setMaxTextMessageBufferSize(maxMessageKb * 1024);
+        return container;
+    }
+}
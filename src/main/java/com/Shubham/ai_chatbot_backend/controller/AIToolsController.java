@@ -1,19 +1,34 @@
 package com.Shubham.ai_chatbot_backend.controller;
 
+import com.Shubham.ai_chatbot_backend.config.RequestLogSampler;
+import com.Shubham.ai_chatbot_backend.dto.*;
+import com.Shubham.ai_chatbot_backend.exception.AuthenticationRequiredException;
+import com.Shubham.ai_chatbot_backend.model.SessionInfo;
 import com.Shubham.ai_chatbot_backend.service.UserService;
 import com.Shubham.ai_chatbot_backend.service.SalaryPredictionService;
 import com.Shubham.ai_chatbot_backend.service.WeatherPredictionService;
 import com.Shubham.ai_chatbot_backend.service.CarRecognitionService;
+import com.Shubham.ai_chatbot_backend.service.ImageMetadataService;
 import com.Shubham.ai_chatbot_backend.service.AIToolsService;
+import com.Shubham.ai_chatbot_backend.service.RateLimitService;
+import com.Shubham.ai_chatbot_backend.service.UserActivityService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import jakarta.annotation.PostConstruct;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/ai-tools")
 public class AIToolsController {
 
+    private static final Logger log = LoggerFactory.getLogger(AIToolsController.class);
+
     @Autowired
     private UserService userService;
 
@@ -26,265 +41,297 @@ public class AIToolsController {
     @Autowired
     private CarRecognitionService carRecognitionService;
 
+    @Autowired
+    private ImageMetadataService imageMetadataService;
+
     @Autowired
     private AIToolsService aiToolsService;
 
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private UserActivityService userActivityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RequestLogSampler requestLogSampler;
+
+    // Static responses, serialized once at startup
+    private String testMlJson;
+    private String testSentimentJson;
+    private String testWeatherJson;
+    private String testCarJson;
+    private String toolsJson;
+
+    @PostConstruct
+    public void init() throws JsonProcessingException {
+        this.testMlJson = objectMapper.writeValueAsString(new StatusResponse(
+                "ML Salary Prediction API is working!", "success", "Trained on tech_salaries.csv", null, null));
+        this.testSentimentJson = objectMapper.writeValueAsString(new StatusResponse(
+                "Sentiment Analysis API is working!", "success", "NaiveBayes with 82% accuracy", null, null));
+        this.testWeatherJson = objectMapper.writeValueAsString(new StatusResponse(
+                "Weather Prediction API is working!", "success", "Trained on auckland_weather.csv", null, null));
+        this.testCarJson = objectMapper.writeValueAsString(new StatusResponse(
+                "Car Recognition API is working!", "success", "TensorFlow CNN Model",
+                "BMW, Mercedes, Audi, Toyota, Honda, Ford", null));
+        this.toolsJson = objectMapper.writeValueAsString(aiToolsService.getAvailableTools());
+    }
+
+    // Authenticates, rate-limits and records usage for one tool call
+    private SessionInfo authorize(String sessionToken, String tool) {
+        SessionInfo session = userService.getValidSession(sessionToken);
+        if (session == null) {
+            throw new AuthenticationRequiredException("Please login to use this feature");
+        }
+
+        rateLimitService.checkLimit(session.userId(), tool);
+        userActivityService.recordToolUsage(session.userId(), tool);
+        return session;
+    }
+
     // Enhanced Salary Prediction Endpoint with ML
     @PostMapping("/salary-prediction")
-    public Map<String, Object> predictSalary(
-            @RequestBody Map<String, Object> request,
+    public SalaryPrediction predictSalary(
+            @RequestBody SalaryPredictionRequest request,
             @RequestHeader("Authorization") String sessionToken) {
 
         // Check authentication
-        if (!userService.validateSession(sessionToken)) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Authentication required");
-            errorResponse.put("message", "Please login to use this feature");
-            return errorResponse;
-        }
+        authorize(sessionToken, "salary-prediction");
 
         try {
-            int experience = (int) request.get("experience");
-            String role = (String) request.get("role");
-            String location = (String) request.get("location");
-            String education = (String) request.get("education");
-            List<String> skills = (List<String>) request.get("skills");
-
-            System.out.println("🤖 ML Salary Prediction Request:");
-            System.out.println("   Experience: " + experience + " years");
-            System.out.println("   Role: " + role);
-            System.out.println("   Location: " + location);
-            System.out.println("   Education: " + education);
-            System.out.println("   Skills: " + skills);
-
-            // Use ML service for prediction
-            Map<String, Object> prediction = salaryPredictionService.predictSalaryWithML(
-                    experience, role, location, education, skills
-            );
+            int experience = request.experience();
+
+            if (requestLogSampler.sample(log)) {
+                log.atDebug().setMessage("Salary prediction request")
+                        .addKeyValue("experience", experience)
+                        .addKeyValue("role", request.role())
+                        .addKeyValue("location", request.location())
+                        .addKeyValue("education", request.education())
+                        .addKeyValue("skills", request.skills())
+                        .log();
+            }
 
-            // Return the prediction directly from ML service
-            return prediction;
+            // Use ML service for prediction, returned directly
+            return salaryPredictionService.predictSalaryWithML(
+                    experience, request.role(), request.location(), request.education(), request.skills()
+            );
 
         } catch (Exception e) {
-            System.out.println("❌ Salary prediction error: " + e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("error", "Prediction failed");
-            errorResponse.put("message", "ML service unavailable. Please try again later.");
-            return errorResponse;
+            log.error("Salary prediction error", e);
+            return SalaryPrediction.failure("Prediction failed",
+                    "ML service unavailable. Please try again later.", null);
         }
     }
 
     // Sentiment Analysis Endpoint with ML
     @PostMapping("/sentiment-analysis")
-    public Map<String, Object> analyzeSentiment(
-            @RequestBody Map<String, String> request,
+    public SentimentResult analyzeSentiment(
+            @RequestBody SentimentRequest request,
             @RequestHeader("Authorization") String sessionToken) {
 
         // Check authentication
-        if (!userService.validateSession(sessionToken)) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Authentication required");
-            errorResponse.put("message", "Please login to use this feature");
-            return errorResponse;
-        }
+        authorize(sessionToken, "sentiment-analysis");
 
         try {
-            String text = request.get("text");
-            System.out.println("📊 Sentiment Analysis Request: " + text);
+            String text = request.text();
+            if (requestLogSampler.sample(log)) {
+                log.atDebug().setMessage("Sentiment analysis request")
+                        .addKeyValue("textLength", text == null ? 0 : text.length())
+                        .log();
+            }
 
             // Call Python ML model for sentiment analysis using service
-            Map<String, Object> sentimentResult = aiToolsService.callPythonSentimentModel(text);
+            SentimentResult sentimentResult = aiToolsService.callPythonSentimentModel(text);
 
-            if (sentimentResult != null && sentimentResult.get("success") != null && (boolean) sentimentResult.get("success")) {
+            if (sentimentResult != null && Boolean.TRUE.equals(sentimentResult.success())) {
                 return sentimentResult;
             } else {
                 // Return error if ML model fails
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("success", false);
-                errorResponse.put("error", "Sentiment analysis service temporarily unavailable");
-                errorResponse.put("message", "Please try again later");
-                return errorResponse;
+                return SentimentResult.failure("Sentiment analysis service temporarily unavailable",
+                        "Please try again later", null);
             }
 
         } catch (Exception e) {
-            System.out.println("❌ Sentiment analysis error: " + e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("error", "Analysis failed");
-            errorResponse.put("message", e.getMessage());
-            return errorResponse;
+            log.error("Sentiment analysis error", e);
+            return SentimentResult.failure("Analysis failed", e.getMessage(), null);
         }
     }
 
     // Weather Prediction Endpoint with ML
     @PostMapping("/weather-prediction")
-    public Map<String, Object> predictWeather(
-            @RequestBody Map<String, Object> request,
+    public WeatherPrediction predictWeather(
+            @RequestBody WeatherPredictionRequest request,
             @RequestHeader("Authorization") String sessionToken) {
 
         // Check authentication
-        if (!userService.validateSession(sessionToken)) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Authentication required");
-            errorResponse.put("message", "Please login to use this feature");
-            return errorResponse;
-        }
+        authorize(sessionToken, "weather-prediction");
 
         try {
-            double temperature = ((Number) request.get("temperature")).doubleValue();
-            double humidity = ((Number) request.get("humidity")).doubleValue();
-            double windSpeed = ((Number) request.get("windSpeed")).doubleValue();
-            double pressure = ((Number) request.get("pressure")).doubleValue();
-            double rainfall = ((Number) request.get("rainfall")).doubleValue();
-
-            System.out.println("🌤️ Weather Prediction Request:");
-            System.out.println("   Temperature: " + temperature + "°C");
-            System.out.println("   Humidity: " + humidity + "%");
-            System.out.println("   Wind Speed: " + windSpeed + " km/h");
-            System.out.println("   Pressure: " + pressure + " hPa");
-            System.out.println("   Rainfall: " + rainfall + " mm");
-
-            // Use weather prediction service
-            Map<String, Object> prediction = weatherPredictionService.predictWeather(
+            double temperature = request.temperature();
+            double humidity = request.humidity();
+            double windSpeed = request.windSpeed();
+            double pressure = request.pressure();
+            double rainfall = request.rainfall();
+
+            if (requestLogSampler.sample(log)) {
+                log.atDebug().setMessage("Weather prediction request")
+                        .addKeyValue("temperature", temperature)
+                        .addKeyValue("humidity", humidity)
+                        .addKeyValue("windSpeed", windSpeed)
+                        .addKeyValue("pressure", pressure)
+                        .addKeyValue("rainfall", rainfall)
+                        .log();
+            }
+
+            // Use weather prediction service, returned directly
+            return weatherPredictionService.predictWeather(
                     temperature, humidity, windSpeed, pressure, rainfall
             );
 
-            // Return the prediction directly from ML service
-            return prediction;
-
         } catch (Exception e) {
-            System.out.println("❌ Weather prediction error: " + e.getMessage());
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("error", "Weather prediction failed");
-            errorResponse.put("message", "Please check your input parameters");
-            return errorResponse;
+            log.error("Weather prediction error", e);
+            return WeatherPrediction.failure("Weather prediction failed", "Please check your input parameters");
         }
     }
 
     // Enhanced Car Recognition Endpoint with ML
     @PostMapping("/car-recognition")
-    public Map<String, Object> recognizeCar(
+    public CarRecognitionResult recognizeCar(
             @RequestParam("image") MultipartFile image,
             @RequestHeader("Authorization") String sessionToken) {
 
         // Check authentication
-        if (!userService.validateSession(sessionToken)) {
-            return Map.of("error", "Authentication required");
+        authorize(sessionToken, "car-recognition");
+
+        try {
+            boolean sampled = requestLogSampler.sample(log);
+            if (sampled) {
+                log.atDebug().setMessage("Car recognition request")
+                        .addKeyValue("fileName", image.getOriginalFilename())
+                        .addKeyValue("bytes", image.getSize())
+                        .addKeyValue("contentType", image.getContentType())
+                        .log();
+            }
+
+            CarRecognitionResult result = carRecognitionService.recognizeCar(image);
+            if (sampled) {
+                log.debug("Car recognition result: {}", result);
+            }
+
+            return result;
+
+        } catch (Exception e) {
+            log.error("Car recognition controller error", e);
+            return CarRecognitionResult.failure("Car recognition failed: " + e.getMessage());
         }
+    }
+
+    // Several images, one model call; top-k brands per image
+    @PostMapping("/car-recognition/batch")
+    public CarBatchResult recognizeCars(
+            @RequestParam("images") List<MultipartFile> images,
+            @RequestParam(value = "topK", defaultValue = "3") int topK,
+            @RequestHeader("Authorization") String sessionToken) {
+
+        // Own rate limit: one batch is up to car.batch.max-images model inputs
+        authorize(sessionToken, "car-recognition-batch");
 
         try {
-            System.out.println("🚗 Car Recognition Request");
-            System.out.println("📁 File name: " + image.getOriginalFilename());
-            System.out.println("📁 File size: " + image.getSize() + " bytes");
-            System.out.println("📁 Content type: " + image.getContentType());
+            boolean sampled = requestLogSampler.sample(log);
+            if (sampled) {
+                log.atDebug().setMessage("Batch car recognition request")
+                        .addKeyValue("images", images.size())
+                        .addKeyValue("bytes", images.stream().mapToLong(MultipartFile::getSize).sum())
+                        .addKeyValue("topK", topK)
+                        .log();
+            }
 
-            Map<String, Object> result = carRecognitionService.recognizeCar(image);
-            System.out.println("🎯 Final result: " + result);
+            CarBatchResult result = carRecognitionService.recognizeCars(images, topK);
+            if (sampled) {
+                log.debug("Batch car recognition result: {}", result);
+            }
 
             return result;
 
         } catch (Exception e) {
-            System.out.println("❌ Controller error: " + e.getMessage());
-            e.printStackTrace();
-            return Map.of(
-                    "success", false,
-                    "error", "Car recognition failed: " + e.getMessage()
-            );
+            log.error("Batch car recognition controller error", e);
+            return CarBatchResult.failure("Car recognition failed: " + e.getMessage());
         }
     }
 
     // Image Analysis Endpoint (Generic)
     @PostMapping("/image-analysis")
-    public Map<String, Object> analyzeImage(
+    public ImageAnalysisResponse analyzeImage(
             @RequestParam("image") MultipartFile image,
             @RequestHeader("Authorization") String sessionToken) {
 
         // Check authentication
-        if (!userService.validateSession(sessionToken)) {
-            return Map.of("error", "Authentication required");
-        }
+        authorize(sessionToken, "image-analysis");
 
         try {
-            System.out.println("🖼️ Image Analysis Request");
-            System.out.println("📁 File name: " + image.getOriginalFilename());
-            System.out.println("📁 File size: " + image.getSize() + " bytes");
-
-            // For now, return basic image info
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Image received successfully");
-            response.put("fileName", image.getOriginalFilename());
-            response.put("fileSize", image.getSize());
-            response.put("contentType", image.getContentType());
-            response.put("analysisType", "basic_info");
+            if (requestLogSampler.sample(log)) {
+                log.atDebug().setMessage("Image analysis request")
+                        .addKeyValue("fileName", image.getOriginalFilename())
+                        .addKeyValue("bytes", image.getSize())
+                        .log();
+            }
 
-            return response;
+            // Headers and thumbnails only; unknown formats still get the basic info
+            ImageMetadata metadata = imageMetadataService.analyze(image);
+            if (metadata == null) {
+                return new ImageAnalysisResponse(true, "Image received, but the format was not recognised",
+                        image.getOriginalFilename(), image.getSize(), image.getContentType(), "basic_info", null, null);
+            }
+            return new ImageAnalysisResponse(true, "Image analysed successfully", image.getOriginalFilename(),
+                    image.getSize(), image.getContentType(), "header_metadata", metadata, null);
 
         } catch (Exception e) {
-            return Map.of(
-                    "success", false,
-                    "error", "Image analysis failed"
-            );
+            log.debug("Image analysis failed: {}", e.getMessage());
+            return ImageAnalysisResponse.failure("Image analysis failed");
         }
     }
 
     // ================= EXISTING ENDPOINTS =================
 
     // Test endpoints
-    @GetMapping("/test-ml")
-    public Map<String, String> testML() {
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "ML Salary Prediction API is working!");
-        response.put("status", "success");
-        response.put("model", "Trained on tech_salaries.csv");
-        return response;
+    @GetMapping(value = "/test-ml", produces = MediaType.APPLICATION_JSON_VALUE)
+    public String testML() {
+        return testMlJson;
     }
 
-    @GetMapping("/test-sentiment")
-    public Map<String, String> testSentiment() {
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Sentiment Analysis API is working!");
-        response.put("status", "success");
-        response.put("model", "NaiveBayes with 82% accuracy");
-        return response;
+    @GetMapping(value = "/test-sentiment", produces = MediaType.APPLICATION_JSON_VALUE)
+    public String testSentiment() {
+        return testSentimentJson;
     }
 
-    @GetMapping("/test-weather")
-    public Map<String, String> testWeather() {
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Weather Prediction API is working!");
-        response.put("status", "success");
-        response.put("model", "Trained on auckland_weather.csv");
-        return response;
+    @GetMapping(value = "/test-weather", produces = MediaType.APPLICATION_JSON_VALUE)
+    public String testWeather() {
+        return testWeatherJson;
     }
 
-    @GetMapping("/test-car")
-    public Map<String, String> testCar() {
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Car Recognition API is working!");
-        response.put("status", "success");
-        response.put("model", "TensorFlow CNN Model");
-        response.put("supported_brands", "BMW, Mercedes, Audi, Toyota, Honda, Ford");
-        return response;
+    @GetMapping(value = "/test-car", produces = MediaType.APPLICATION_JSON_VALUE)
+    public String testCar() {
+        return testCarJson;
     }
 
     // Health check endpoint for all AI tools
     @GetMapping("/health")
-    public Map<String, Object> healthCheck() {
+    public ToolsHealthResponse healthCheck() {
         return aiToolsService.getHealthStatus();
     }
 
-    // Get available AI tools
-    @GetMapping("/tools")
-    public Map<String, Object> getAvailableTools() {
-        return aiToolsService.getAvailableTools();
+    // Get available AI tools - the list is fixed, so last_updated is the startup time
+    @GetMapping(value = "/tools", produces = MediaType.APPLICATION_JSON_VALUE)
+    public String getAvailableTools() {
+        return toolsJson;
     }
 
     // Root endpoint for Railway health checks
     @GetMapping("/")
-    public Map<String, String> home() {
+    public HomeResponse home() {
         return aiToolsService.getHomeInfo();
     }
-}
\ No newline at end of file
+}
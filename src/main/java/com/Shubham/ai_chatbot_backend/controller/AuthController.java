@@ -1,8 +1,14 @@
 package com.Shubham.ai_chatbot_backend.controller;
 
+import com.Shubham.ai_chatbot_backend.dto.*;
+import com.Shubham.ai_chatbot_backend.model.UserListing;
+import com.Shubham.ai_chatbot_backend.service.AvailabilityService;
 import com.Shubham.ai_chatbot_backend.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
 import java.util.*;
 
 @RestController
@@ -13,93 +19,73 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AvailabilityService availabilityService;
+
     // User Registration
     @PostMapping("/register")
-    public Map<String, Object> register(@RequestBody Map<String, String> request) {
-        String username = request.get("username");
-        String email = request.get("email");
-        String password = request.get("password");
+    public AuthResponse register(@RequestBody RegisterRequest request) {
+        return userService.registerUser(request.username(), request.email(), request.password());
+    }
+
+    // Live availability checks for the registration form
+    @GetMapping("/check-username")
+    public AvailabilityResponse checkUsername(@RequestParam String username) {
+        return new AvailabilityResponse(username, null, availabilityService.isUsernameAvailable(username));
+    }
 
-        return userService.registerUser(username, email, password);
+    @GetMapping("/check-email")
+    public AvailabilityResponse checkEmail(@RequestParam String email) {
+        return new AvailabilityResponse(null, email, availabilityService.isEmailAvailable(email));
     }
 
     // User Login
     @PostMapping("/login")
-    public Map<String, Object> login(@RequestBody Map<String, String> request) {
-        String email = request.get("email");
-        String password = request.get("password");
-
-        return userService.loginUser(email, password);
+    public AuthResponse login(@RequestBody LoginRequest request) {
+        return userService.loginUser(request.email(), request.password());
     }
 
     // User Logout
     @PostMapping("/logout")
-    public Map<String, Object> logout(@RequestHeader("Authorization") String sessionToken) {
+    public SimpleResponse logout(@RequestHeader("Authorization") String sessionToken) {
         boolean success = userService.logout(sessionToken);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", success);
-        response.put("message", success ? "Logout successful" : "Invalid session");
-        return response;
+        return new SimpleResponse(success, success ? "Logout successful" : "Invalid session");
     }
 
     // Validate Session
     @GetMapping("/validate")
-    public Map<String, Object> validateSession(@RequestHeader("Authorization") String sessionToken) {
-        boolean isValid = userService.validateSession(sessionToken);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("valid", isValid);
-        if (isValid) {
-            var user = userService.getUserFromSession(sessionToken);
-            Map<String, Object> userMap = new HashMap<>();
-            userMap.put("id", user.getId());
-            userMap.put("username", user.getUsername());
-            userMap.put("email", user.getEmail());
-            userMap.put("avatar", user.getAvatar());
-            response.put("user", userMap);
-        }
-        return response;
+    public ValidateResponse validateSession(@RequestHeader("Authorization") String sessionToken) {
+        var user = userService.getSessionUserSummary(sessionToken);
+        return new ValidateResponse(user != null, user);
     }
 
-    // Get all users (for testing)
-    @GetMapping("/users")
-    public List<Map<String, Object>> getAllUsers() {
-        List<Map<String, Object>> userList = new ArrayList<>();
+    // Get all users (for testing) - streamed row by row from a DB cursor
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getAllUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        userService.writeAllUsers(response.getOutputStream());
+    }
 
-        for (var user : userService.getAllUsers()) {
-            Map<String, Object> userMap = new HashMap<>();
-            userMap.put("id", user.getId());
-            userMap.put("username", user.getUsername());
-            userMap.put("email", user.getEmail());
-            userMap.put("avatar", user.getAvatar());
-            userMap.put("createdAt", user.getCreatedAt());
-            userMap.put("lastLogin", user.getLastLogin());
-            userMap.put("messageCount", user.getMessageCount());
-            userList.add(userMap);
-        }
+    // Keyset-paginated users: pass the returned nextAfterId to get the next page
+    @GetMapping("/users/page")
+    public UserPageResponse getUsersPage(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        int pageSize = Math.max(1, Math.min(size, 500));
+        List<UserListing> users = userService.getUsersPage(afterId, pageSize);
 
-        return userList;
+        Long nextAfterId = users.size() < pageSize ? null : users.get(users.size() - 1).id();
+        return new UserPageResponse(users, users.size(), nextAfterId);
     }
 
     // Test database connection
     @GetMapping("/test-db")
-    public Map<String, Object> testDatabase() {
-        Map<String, Object> response = new HashMap<>();
-
+    public DatabaseTestResponse testDatabase() {
         try {
-            long userCount = userService.getAllUsers().size();
-
-            response.put("status", "success");
-            response.put("message", "Database connection successful!");
-            response.put("userCount", userCount);
-            response.put("database", "MySQL");
-
+            long userCount = userService.countUsers();
+            return new DatabaseTestResponse("success", "Database connection successful!", userCount, "MySQL");
         } catch (Exception e) {
-            response.put("status", "error");
-            response.put("message", "Database connection failed: " + e.getMessage());
+            return new DatabaseTestResponse("error", "Database connection failed: " + e.getMessage(), null, null);
         }
-
-        return response;
     }
-}
\ No newline at end of file
+}
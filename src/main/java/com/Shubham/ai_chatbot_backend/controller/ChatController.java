@@ -1,147 +1,152 @@
 package com.Shubham.ai_chatbot_backend.controller;
 
+import com.Shubham.ai_chatbot_backend.config.RequestLogSampler;
+import com.Shubham.ai_chatbot_backend.dto.*;
+import com.Shubham.ai_chatbot_backend.exception.AuthenticationRequiredException;
 import com.Shubham.ai_chatbot_backend.service.UserService;
 import com.Shubham.ai_chatbot_backend.service.OpenAIService;
+import com.Shubham.ai_chatbot_backend.service.RateLimitService;
+import com.Shubham.ai_chatbot_backend.service.UserActivityService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import jakarta.annotation.PostConstruct;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/chat")
 public class ChatController {
 
+    private static final Logger log = LoggerFactory.getLogger(ChatController.class);
+
+    private static final List<String> FEATURES = List.of(
+            "authentication",
+            "custom_responses",
+            "openai_integration",
+            "hybrid_response_system"
+    );
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private OpenAIService openAIService;
 
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private RequestLogSampler requestLogSampler;
+
+    @Autowired
+    private UserActivityService userActivityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Conversation memory for context
     private Map<String, List<String>> conversationMemory = new HashMap<>();
 
+    // Static responses, serialized once at startup
+    private String botInfoJson;
+    private String testJson;
+
+    @PostConstruct
+    public void init() throws JsonProcessingException {
+        String openaiAvailable = String.valueOf(openAIService.isOpenAIAvailable());
+
+        this.botInfoJson = objectMapper.writeValueAsString(new BotInfoResponse(
+                "Shubham's AI Chatbot",
+                "2.0",
+                "Hybrid AI-powered chatbot with custom responses and OpenAI integration",
+                "Custom Q&A, OpenAI AI Responses, Smart Fallbacks",
+                "React + Java Spring Boot + OpenAI API",
+                "AI Powered and Ready!",
+                "Hybrid (Custom + OpenAI)",
+                openaiAvailable
+        ));
+        this.testJson = objectMapper.writeValueAsString(new StatusResponse(
+                "Chat API is working! Hybrid AI system ready.", "success", null, null, openaiAvailable));
+    }
+
     @PostMapping("/send")
-    public Map<String, Object> receiveMessage(
-            @RequestBody Map<String, String> request,
+    public ChatResponse receiveMessage(
+            @RequestBody ChatRequest request,
             @RequestHeader(value = "Authorization", required = false) String sessionToken) {
 
-        // Check authentication
-        if (sessionToken == null || !userService.validateSession(sessionToken)) {
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Authentication required");
-            errorResponse.put("message", "Please login to chat");
-            return errorResponse;
+        // Check authentication and get user info
+        var session = userService.getValidSession(sessionToken);
+        if (session == null) {
+            throw new AuthenticationRequiredException("Please login to chat");
         }
 
-        String userMessage = request.get("message");
-        String sessionId = request.getOrDefault("sessionId", "default");
+        rateLimitService.checkLimit(session.userId(), "chat");
+        userActivityService.recordMessage(session.userId());
 
-        // Get user info
-        var user = userService.getUserFromSession(sessionToken);
-        System.out.println("👤 User " + user.getUsername() + " (ID: " + user.getId() + "): " + userMessage);
+        String userMessage = request.message();
+        String sessionId = request.sessionIdOrDefault();
 
         // Generate intelligent response using hybrid approach
         String botResponse = openAIService.generateResponse(userMessage);
 
-        System.out.println("🤖 Response: " + botResponse);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("response", botResponse);
-        response.put("status", "success");
-        response.put("sessionId", sessionId);
-        response.put("timestamp", new Date().toString());
+        if (requestLogSampler.sample(log)) {
+            log.atDebug().setMessage("Chat exchange")
+                    .addKeyValue("userId", session.userId())
+                    .addKeyValue("messageLength", userMessage == null ? 0 : userMessage.length())
+                    .addKeyValue("responseLength", botResponse == null ? 0 : botResponse.length())
+                    .log();
+        }
 
         // Add source info for debugging
-        if (botResponse.contains("Shubham") || botResponse.contains("portfolio") ||
-                botResponse.contains("Otago Polytechnic") || botResponse.contains("BIT")) {
-            response.put("model", "Custom_Response_v1.0");
-        } else if (openAIService.isOpenAIAvailable()) {
-            response.put("model", "OpenAI_GPT-3.5");
-        } else {
-            response.put("model", "Fallback_Response");
-        }
+        String model = openAIService.responseModel(botResponse);
 
-        return response;
+        return new ChatResponse(botResponse, "success", sessionId, new Date().toString(), model);
     }
 
     // Clear conversation memory
     @PostMapping("/clear")
-    public Map<String, Object> clearConversation(@RequestBody Map<String, String> request) {
-        String sessionId = request.getOrDefault("sessionId", "default");
-        conversationMemory.remove(sessionId);
-
-        return Map.of(
-                "success", true,
-                "message", "Conversation cleared successfully"
-        );
+    public SimpleResponse clearConversation(@RequestBody ChatRequest request) {
+        conversationMemory.remove(request.sessionIdOrDefault());
+        return new SimpleResponse(true, "Conversation cleared successfully");
     }
 
     // Get bot info
-    @GetMapping("/info")
-    public Map<String, String> getBotInfo() {
-        Map<String, String> info = new HashMap<>();
-        info.put("name", "Shubham's AI Chatbot");
-        info.put("version", "2.0");
-        info.put("description", "Hybrid AI-powered chatbot with custom responses and OpenAI integration");
-        info.put("features", "Custom Q&A, OpenAI AI Responses, Smart Fallbacks");
-        info.put("technology", "React + Java Spring Boot + OpenAI API");
-        info.put("status", "AI Powered and Ready!");
-        info.put("response_mode", "Hybrid (Custom + OpenAI)");
-        info.put("openai_available", String.valueOf(openAIService.isOpenAIAvailable()));
-        return info;
+    @GetMapping(value = "/info", produces = MediaType.APPLICATION_JSON_VALUE)
+    public String getBotInfo() {
+        return botInfoJson;
     }
 
     // OpenAI Status Endpoint
     @GetMapping("/openai-status")
-    public Map<String, Object> getOpenAIStatus() {
-        Map<String, Object> status = openAIService.getOpenAIStatus();
-        status.put("timestamp", new Date().toString());
-        return status;
+    public OpenAIStatusResponse getOpenAIStatus() {
+        return openAIService.getOpenAIStatus();
     }
 
-    @GetMapping("/test")
-    public Map<String, String> test() {
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Chat API is working! Hybrid AI system ready.");
-        response.put("status", "success");
-        response.put("openai_available", String.valueOf(openAIService.isOpenAIAvailable()));
-        return response;
+    @GetMapping(value = "/test", produces = MediaType.APPLICATION_JSON_VALUE)
+    public String test() {
+        return testJson;
     }
 
     // Test the OpenAI service
     @GetMapping("/test-openai")
-    public Map<String, Object> testOpenAI() {
-        Map<String, Object> result = new HashMap<>();
-
+    public OpenAITestResponse testOpenAI() {
         try {
             String testResponse = openAIService.generateResponse("Hello, who are you?");
-            result.put("success", true);
-            result.put("response", testResponse);
-            result.put("openai_available", openAIService.isOpenAIAvailable());
-            result.put("message", "OpenAI service test completed");
+            return new OpenAITestResponse(true, testResponse, null,
+                    openAIService.isOpenAIAvailable(), "OpenAI service test completed");
         } catch (Exception e) {
-            result.put("success", false);
-            result.put("error", e.getMessage());
-            result.put("openai_available", false);
-            result.put("message", "OpenAI service test failed");
+            return new OpenAITestResponse(false, null, e.getMessage(), false, "OpenAI service test failed");
         }
-
-        return result;
     }
 
     // Health check for chat service
     @GetMapping("/health")
-    public Map<String, Object> healthCheck() {
-        Map<String, Object> health = new HashMap<>();
-        health.put("service", "chat");
-        health.put("status", "healthy");
-        health.put("timestamp", new Date().toString());
-        health.put("openai_available", openAIService.isOpenAIAvailable());
-        health.put("features", Arrays.asList(
-                "authentication",
-                "custom_responses",
-                "openai_integration",
-                "hybrid_response_system"
-        ));
-        return health;
+    public ServiceHealthResponse healthCheck() {
+        return new ServiceHealthResponse("chat", "healthy", new Date().toString(),
+                openAIService.isOpenAIAvailable(), FEATURES);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,308 @@
+package com.Shubham.ai_chatbot_backend.controller;
+
+import com.Shubham.ai_chatbot_backend.config.RequestLogSampler;
+import com.Shubham.ai_chatbot_backend.dto.ChatResponse;
+import com.Shubham.ai_chatbot_backend.dto.ChatSocketEvent;
+import com.Shubham.ai_chatbot_backend.dto.ChatSocketRequest;
+import com.Shubham.ai_chatbot_backend.exception.RateLimitExceededException;
+import com.Shubham.ai_chatbot_backend.exception.StreamCancelledException;
+import com.Shubham.ai_chatbot_backend.model.SessionInfo;
+import com.Shubham.ai_chatbot_backend.service.OpenAIService;
+import com.Shubham.ai_chatbot_backend.service.RateLimitService;
+import com.Shubham.ai_chatbot_backend.service.SessionRevokedEvent;
+import com.Shubham.ai_chatbot_backend.service.UserActivityService;
+import com.Shubham.ai_chatbot_backend.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-turn chat on /ws/chat.
+ *
+ * The session token is checked once, at the handshake, instead of on every message;
+ * after that a message is one JSON frame ({"id", "message", "sessionId"}) and its reply
+ * is a stream of "delta" frames ending in "done" or "error", tagged with the same id so
+ * several messages can be in flight on one connection.
+ *
+ * Replies are generated on a bounded "chat-ws" executor, at most chat.ws.max-in-flight
+ * per connection. Outgoing frames go through a ConcurrentWebSocketSessionDecorator, so a
+ * client that stops reading is disconnected once its send buffer or send time limit is
+ * exceeded rather than holding a worker thread. Idle connections are closed by the
+ * container after chat.ws.idle-timeout-seconds (see WebSocketConfig). Logging out closes
+ * every socket opened with that token; an expired session is closed on its next message.
+ */
+@Component
+public class ChatWebSocketHandler extends TextWebSocketHandler implements HandshakeInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatWebSocketHandler.class);
+
+    private static final String SESSION_ATTRIBUTE = "chat.session";
+    private static final String TOKEN_ATTRIBUTE = "chat.token";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private UserActivityService userActivityService;
+
+    @Autowired
+    private RequestLogSampler requestLogSampler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${chat.ws.max-in-flight:4}")
+    private int maxInFlight;
+
+    @Value("${chat.ws.threads:32}")
+    private int threads;
+
+    @Value("${chat.ws.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${chat.ws.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${chat.ws.send-buffer-kb:256}")
+    private int sendBufferKb;
+
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    // Session token -> its open sockets, so a logout can close them
+    private final Map<String, Set<Connection>> connectionsByToken = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    // One per open socket: the thread-safe sending view plus the identity from the handshake
+    private record Connection(WebSocketSession session, String token, SessionInfo user, AtomicInteger inFlight) {
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chat-ws-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "chat-ws", Tags.empty()).bindTo(meterRegistry);
+
+        Gauge.builder("chat.ws.connections", connections, Map::size)
+                .description("Open chat WebSocket connections")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Browsers can't set headers on a WebSocket handshake, so ?token= is accepted too
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String token = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (token == null) {
+            token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("token");
+        }
+
+        SessionInfo session = userService.getValidSession(token);
+        if (session == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(SESSION_ATTRIBUTE, session);
+        attributes.put(TOKEN_ATTRIBUTE, token);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        SessionInfo user = (SessionInfo) session.getAttributes().get(SESSION_ATTRIBUTE);
+        String token = (String) session.getAttributes().get(TOKEN_ATTRIBUTE);
+        WebSocketSession sender = new ConcurrentWebSocketSessionDecorator(
+                session, sendTimeLimitMillis, sendBufferKb * 1024,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+        Connection connection = new Connection(sender, token, user, new AtomicInteger());
+        connections.put(session.getId(), connection);
+        connectionsByToken.computeIfAbsent(token, k -> ConcurrentHashMap.newKeySet()).add(connection);
+
+        // A logout between the handshake and now found nothing to close
+        if (userService.getValidSession(token) == null) {
+            closeQuietly(connection, CloseStatus.POLICY_VIOLATION.withReason("Logged out"));
+            return;
+        }
+        send(connection, ChatSocketEvent.ready(user.username()));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = connections.remove(session.getId());
+        if (connection != null) {
+            connectionsByToken.computeIfPresent(connection.token(), (token, open) -> {
+                open.remove(connection);
+                return open.isEmpty() ? null : open;
+            });
+        }
+    }
+
+    @EventListener
+    public void onSessionRevoked(SessionRevokedEvent event) {
+        Set<Connection> open = connectionsByToken.remove(event.sessionToken());
+        if (open == null) {
+            return;
+        }
+        for (Connection connection : open) {
+            closeQuietly(connection, CloseStatus.POLICY_VIOLATION.withReason("Logged out"));
+        }
+    }
+
+    private void closeQuietly(Connection connection, CloseStatus status) {
+        try {
+            connection.session().close(status);
+        } catch (IOException e) {
+            log.debug("Closing WebSocket {} failed: {}", connection.session().getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Connection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+
+        if (connection.user().isExpired()) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Session expired"));
+            return;
+        }
+
+        ChatSocketRequest request;
+        try {
+            request = objectMapper.readValue(message.getPayload(), ChatSocketRequest.class);
+        } catch (JsonProcessingException e) {
+            send(connection, ChatSocketEvent.error(null, "Malformed message"));
+            return;
+        }
+        if (request.message() == null || request.message().isBlank()) {
+            send(connection, ChatSocketEvent.error(request.id(), "Message is required"));
+            return;
+        }
+
+        if (connection.inFlight().incrementAndGet() > maxInFlight) {
+            connection.inFlight().decrementAndGet();
+            send(connection, ChatSocketEvent.error(request.id(),
+                    "Too many messages in flight; wait for a reply before sending more"));
+            return;
+        }
+
+        try {
+            rateLimitService.checkLimit(connection.user().userId(), "chat");
+            executor.execute(() -> reply(connection, request));
+        } catch (RateLimitExceededException e) {
+            connection.inFlight().decrementAndGet();
+            send(connection, ChatSocketEvent.rateLimited(request.id(),
+                    "Too many requests. Please try again later.", e.getRetryAfterSeconds()));
+        } catch (RejectedExecutionException e) {
+            connection.inFlight().decrementAndGet();
+            send(connection, ChatSocketEvent.error(request.id(), "Chat is busy, please try again shortly"));
+        }
+    }
+
+    private void reply(Connection connection, ChatSocketRequest request) {
+        try {
+            userActivityService.recordMessage(connection.user().userId());
+
+            String botResponse = openAIService.streamResponse(request.message(), delta -> {
+                // Stop generating for a client that has gone away
+                if (!connection.session().isOpen()) {
+                    throw new StreamCancelledException("WebSocket " + connection.session().getId() + " closed");
+                }
+                send(connection, ChatSocketEvent.delta(request.id(), delta));
+            });
+
+            if (requestLogSampler.sample(log)) {
+                log.atDebug().setMessage("Chat exchange")
+                        .addKeyValue("userId", connection.user().userId())
+                        .addKeyValue("messageLength", request.message().length())
+                        .addKeyValue("responseLength", botResponse.length())
+                        .addKeyValue("transport", "websocket")
+                        .log();
+            }
+
+            send(connection, ChatSocketEvent.done(request.id(), new ChatResponse(botResponse, "success",
+                    request.sessionIdOrDefault(), new Date().toString(), openAIService.responseModel(botResponse))));
+        } catch (StreamCancelledException e) {
+            log.debug("Stopped reply {}: {}", request.id(), e.getMessage());
+        } catch (Exception e) {
+            if (connection.session().isOpen()) {
+                log.error("WebSocket chat reply failed: {}", e.getMessage());
+                send(connection, ChatSocketEvent.error(request.id(), "Failed to generate response"));
+            }
+        } finally {
+            connection.inFlight().decrementAndGet();
+        }
+    }
+
+    private void send(Connection connection, ChatSocketEvent event) {
+        WebSocketSession session = connection.session();
+        if (!session.isOpen()) {
+            return;
+        }
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(event)));
+        } catch (SessionLimitExceededException e) {
+            // The decorator has already closed the socket: the client isn't keeping up
+            log.debug("Closed slow WebSocket client {}: {}", session.getId(), e.getMessage());
+        } catch (IOException e) {
+            log.debug("WebSocket send to {} failed: {}", session.getId(), e.getMessage());
+        }
+    }
+}
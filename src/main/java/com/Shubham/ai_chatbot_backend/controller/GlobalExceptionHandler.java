@@ -0,0 +1,40 @@
+package com.Shubham.ai_chatbot_backend.controller;
+
+import com.Shubham.ai_chatbot_backend.dto.ErrorResponse;
+import com.Shubham.ai_chatbot_backend.exception.AuthenticationRequiredException;
+import com.Shubham.ai_chatbot_backend.exception.RateLimitExceededException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    // Still 200 with an "error" body - that is what the frontend has always checked for
+    @ExceptionHandler(AuthenticationRequiredException.class)
+    public ErrorResponse handleAuthenticationRequired(AuthenticationRequiredException e) {
+        return ErrorResponse.authRequired(e.getMessage());
+    }
+
+    // 429 with Retry-After so clients know when the bucket has refilled
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimit(RateLimitExceededException e) {
+        ErrorResponse errorResponse = ErrorResponse.rateLimited(
+                "Rate limit exceeded for " + e.getEndpoint() + ". Please slow down.", e.getRetryAfterSeconds());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    // Thrown while the multipart body is parsed, so the upload never reaches the services
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSize(MaxUploadSizeExceededException e) {
+        String limit = e.getMaxUploadSize() > 0 ? " (limit " + e.getMaxUploadSize() / (1024 * 1024) + "MB)" : "";
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(ErrorResponse.payloadTooLarge("Uploaded file is too large" + limit));
+    }
+}
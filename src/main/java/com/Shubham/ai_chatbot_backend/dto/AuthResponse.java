@@ -0,0 +1,21 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.Shubham.ai_chatbot_backend.model.UserSummary;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Register and login results - register fills userId, login fills sessionToken and user
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuthResponse(boolean success, String message, Long userId, String sessionToken, UserSummary user) {
+
+    public static AuthResponse failure(String message) {
+        return new AuthResponse(false, message, null, null, null);
+    }
+
+    public static AuthResponse registered(Long userId) {
+        return new AuthResponse(true, "User registered successfully", userId, null, null);
+    }
+
+    public static AuthResponse loggedIn(String sessionToken, UserSummary user) {
+        return new AuthResponse(true, "Login successful", null, sessionToken, user);
+    }
+}
@@ -0,0 +1,7 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AvailabilityResponse(String username, String email, boolean available) {
+}
@@ -0,0 +1,14 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record BotInfoResponse(
+        String name,
+        String version,
+        String description,
+        String features,
+        String technology,
+        String status,
+        @JsonProperty("response_mode") String responseMode,
+        @JsonProperty("openai_available") String openaiAvailable) {
+}
@@ -0,0 +1,8 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+// JSON read by car_recognition.py for a batch: every image goes through the CNN in one predict call
+public record CarBatchModelInput(List<CarModelInput> images, @JsonProperty("top_k") int topK) {
+}
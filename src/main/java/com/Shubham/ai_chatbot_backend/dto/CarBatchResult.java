@@ -0,0 +1,21 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+// One result per uploaded image, in upload order; individual images can fail without failing the batch
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CarBatchResult(
+        Boolean success,
+        List<CarRecognitionResult> results,
+        Integer count,
+        String error) {
+
+    public static CarBatchResult of(List<CarRecognitionResult> results) {
+        return new CarBatchResult(true, results, results.size(), null);
+    }
+
+    public static CarBatchResult failure(String error) {
+        return new CarBatchResult(false, null, null, error);
+    }
+}
@@ -0,0 +1,21 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// JSON read by car_recognition.py: either raw RGB already at the model's input size, or an image file for PIL
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CarModelInput(
+        @JsonProperty("image_path") String imagePath,
+        @JsonProperty("pixels_path") String pixelsPath,
+        Integer width,
+        Integer height) {
+
+    public static CarModelInput image(String imagePath) {
+        return new CarModelInput(imagePath, null, null, null);
+    }
+
+    public static CarModelInput pixels(String pixelsPath, int width, int height) {
+        return new CarModelInput(null, pixelsPath, width, height);
+    }
+}
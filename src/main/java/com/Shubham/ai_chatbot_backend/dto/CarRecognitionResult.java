@@ -0,0 +1,23 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CarRecognitionResult(
+        Boolean success,
+        @JsonProperty("predicted_brand") String predictedBrand,
+        Double confidence,
+        @JsonProperty("all_predictions") List<BrandPrediction> allPredictions,
+        String model,
+        @JsonProperty("image_size") String imageSize,
+        String error) {
+
+    public record BrandPrediction(String brand, double confidence) {
+    }
+
+    public static CarRecognitionResult failure(String error) {
+        return new CarRecognitionResult(false, null, null, null, null, null, error);
+    }
+}
@@ -0,0 +1,8 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+public record ChatRequest(String message, String sessionId) {
+
+    public String sessionIdOrDefault() {
+        return sessionId != null ? sessionId : "default";
+    }
+}
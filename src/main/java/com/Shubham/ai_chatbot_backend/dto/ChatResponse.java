@@ -0,0 +1,4 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+public record ChatResponse(String response, String status, String sessionId, String timestamp, String model) {
+}
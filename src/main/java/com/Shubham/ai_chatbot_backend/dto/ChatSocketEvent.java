@@ -0,0 +1,43 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Server frame on /ws/chat. A message gets any number of "delta" events followed by
+ * exactly one "done" (the full reply, as /api/chat/send would return it) or "error".
+ * Events for different messages on one connection may interleave; id tells them apart.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChatSocketEvent(
+        String type,
+        String id,
+        String delta,
+        String response,
+        String model,
+        String sessionId,
+        String timestamp,
+        String error,
+        Long retryAfterSeconds,
+        String username) {
+
+    public static ChatSocketEvent ready(String username) {
+        return new ChatSocketEvent("ready", null, null, null, null, null, null, null, null, username);
+    }
+
+    public static ChatSocketEvent delta(String id, String delta) {
+        return new ChatSocketEvent("delta", id, delta, null, null, null, null, null, null, null);
+    }
+
+    public static ChatSocketEvent done(String id, ChatResponse response) {
+        return new ChatSocketEvent("done", id, null, response.response(), response.model(),
+                response.sessionId(), response.timestamp(), null, null, null);
+    }
+
+    public static ChatSocketEvent error(String id, String error) {
+        return new ChatSocketEvent("error", id, null, null, null, null, null, error, null, null);
+    }
+
+    public static ChatSocketEvent rateLimited(String id, String error, long retryAfterSeconds) {
+        return new ChatSocketEvent("error", id, null, null, null, null, null, error, retryAfterSeconds, null);
+    }
+}
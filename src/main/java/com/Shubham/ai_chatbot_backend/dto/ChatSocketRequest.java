@@ -0,0 +1,9 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+// Client frame on /ws/chat; id is chosen by the client and echoed on every event for that message
+public record ChatSocketRequest(String id, String message, String sessionId) {
+
+    public String sessionIdOrDefault() {
+        return sessionId != null ? sessionId : "default";
+    }
+}
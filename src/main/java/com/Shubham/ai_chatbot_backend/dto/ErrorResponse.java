@@ -0,0 +1,20 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ErrorResponse(Boolean success, String error, String message, Long retryAfterSeconds) {
+
+    // Auth failures have never carried a "success" flag; keep that shape for the frontend
+    public static ErrorResponse authRequired(String message) {
+        return new ErrorResponse(null, "Authentication required", message, null);
+    }
+
+    public static ErrorResponse payloadTooLarge(String message) {
+        return new ErrorResponse(false, "File too large", message, null);
+    }
+
+    public static ErrorResponse rateLimited(String message, long retryAfterSeconds) {
+        return new ErrorResponse(false, "Too many requests", message, retryAfterSeconds);
+    }
+}
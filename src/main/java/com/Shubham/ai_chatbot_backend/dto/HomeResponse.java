@@ -0,0 +1,4 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+public record HomeResponse(String message, String status, String timestamp, String version) {
+}
@@ -0,0 +1,19 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImageAnalysisResponse(
+        boolean success,
+        String message,
+        String fileName,
+        Long fileSize,
+        String contentType,
+        String analysisType,
+        ImageMetadata metadata,
+        String error) {
+
+    public static ImageAnalysisResponse failure(String error) {
+        return new ImageAnalysisResponse(false, null, null, null, null, null, null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Read from the image headers (and at most a thumbnail), never from a full decode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImageMetadata(
+        String format,
+        int width,
+        int height,
+        String colorModel,
+        Integer bitsPerPixel,
+        Boolean hasAlpha,
+        Integer orientation,
+        String perceptualHash,
+        String perceptualHashSource) {
+}
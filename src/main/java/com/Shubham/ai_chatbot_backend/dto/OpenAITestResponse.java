@@ -0,0 +1,13 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OpenAITestResponse(
+        boolean success,
+        String response,
+        String error,
+        @JsonProperty("openai_available") boolean openaiAvailable,
+        String message) {
+}
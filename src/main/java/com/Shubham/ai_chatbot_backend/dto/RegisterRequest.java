@@ -0,0 +1,4 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+public record RegisterRequest(String username, String email, String password) {
+}
@@ -0,0 +1,33 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+// Result of the salary model script or the Java fallback
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SalaryPrediction(
+        Boolean success,
+        Long salary,
+        Long salaryUSD,
+        String currency,
+        Integer confidence,
+        String model,
+        @JsonProperty("ml_model_status") String mlModelStatus,
+        String reason,
+        List<String> factors,
+        String note,
+        Double exchangeRate,
+        PredictionDetails predictionDetails,
+        String error,
+        String message,
+        String suggestion) {
+
+    public record PredictionDetails(Long baseSalaryUSD, Long localCurrencySalary, String currencyUsed) {
+    }
+
+    public static SalaryPrediction failure(String error, String message, String suggestion) {
+        return new SalaryPrediction(false, null, null, null, null, null, null, null, null, null,
+                null, null, error, message, suggestion);
+    }
+}
@@ -0,0 +1,8 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import java.util.List;
+
+// Also the exact JSON the salary model script reads
+public record SalaryPredictionRequest(Integer experience, String role, String location, String education,
+                                      List<String> skills) {
+}
@@ -0,0 +1,5 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+// Also the exact JSON the sentiment model script reads
+public record SentimentRequest(String text) {
+}
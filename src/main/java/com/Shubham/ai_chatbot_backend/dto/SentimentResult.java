@@ -0,0 +1,21 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SentimentResult(
+        Boolean success,
+        String sentiment,
+        Double confidence,
+        String analysis,
+        Integer textLength,
+        Integer wordCount,
+        String model,
+        String error,
+        String message,
+        String suggestion) {
+
+    public static SentimentResult failure(String error, String message, String suggestion) {
+        return new SentimentResult(false, null, null, null, null, null, null, error, message, suggestion);
+    }
+}
@@ -0,0 +1,12 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record ServiceHealthResponse(
+        String service,
+        String status,
+        String timestamp,
+        @JsonProperty("openai_available") boolean openaiAvailable,
+        List<String> features) {
+}
@@ -0,0 +1,4 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+public record SimpleResponse(boolean success, String message) {
+}
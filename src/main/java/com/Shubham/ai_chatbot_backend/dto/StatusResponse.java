@@ -0,0 +1,14 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Shape of the static /test* endpoints
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StatusResponse(
+        String message,
+        String status,
+        String model,
+        @JsonProperty("supported_brands") String supportedBrands,
+        @JsonProperty("openai_available") String openaiAvailable) {
+}
@@ -0,0 +1,4 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+public record ToolInfo(String name, String endpoint, String description, String method, String status) {
+}
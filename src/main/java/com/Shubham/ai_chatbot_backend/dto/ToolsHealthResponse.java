@@ -0,0 +1,6 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import java.util.Map;
+
+public record ToolsHealthResponse(String status, String timestamp, Map<String, String> services, String version) {
+}
@@ -0,0 +1,10 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+public record ToolsResponse(
+        List<ToolInfo> tools,
+        @JsonProperty("total_tools") int totalTools,
+        @JsonProperty("last_updated") String lastUpdated) {
+}
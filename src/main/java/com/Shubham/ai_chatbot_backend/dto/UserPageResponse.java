@@ -0,0 +1,7 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.Shubham.ai_chatbot_backend.model.UserListing;
+import java.util.List;
+
+public record UserPageResponse(List<UserListing> users, int size, Long nextAfterId) {
+}
@@ -0,0 +1,8 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.Shubham.ai_chatbot_backend.model.UserSummary;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ValidateResponse(boolean valid, UserSummary user) {
+}
@@ -0,0 +1,12 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// JSON read by weather_predictor.py
+public record WeatherModelInput(
+        double temperature,
+        double humidity,
+        @JsonProperty("wind_speed") double windSpeed,
+        double pressure,
+        double rainfall) {
+}
@@ -0,0 +1,26 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+// Result of the weather model script or the Java fallback
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WeatherPrediction(
+        Boolean success,
+        Double predictedTemperature,
+        Double predictedRainfall,
+        String weatherCondition,
+        Integer confidence,
+        String model,
+        String source,
+        @JsonProperty("ml_model_status") String mlModelStatus,
+        List<String> factors,
+        String location,
+        String error,
+        String message) {
+
+    public static WeatherPrediction failure(String error, String message) {
+        return new WeatherPrediction(false, null, null, null, null, null, null, null, null, null, error, message);
+    }
+}
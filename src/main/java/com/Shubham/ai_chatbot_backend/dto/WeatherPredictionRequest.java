@@ -0,0 +1,5 @@
+package com.Shubham.ai_chatbot_backend.dto;
+
+public record WeatherPredictionRequest(Double temperature, Double humidity, Double windSpeed, Double pressure,
+                                       Double rainfall) {
+}
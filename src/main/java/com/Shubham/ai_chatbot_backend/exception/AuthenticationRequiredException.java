@@ -0,0 +1,8 @@
+package com.Shubham.ai_chatbot_backend.exception;
+
+public class AuthenticationRequiredException extends RuntimeException {
+
+    public AuthenticationRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.Shubham.ai_chatbot_backend.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String endpoint;
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String endpoint, long retryAfterSeconds) {
+        super("Rate limit exceeded for " + endpoint);
+        this.endpoint = endpoint;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getEndpoint() { return endpoint; }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
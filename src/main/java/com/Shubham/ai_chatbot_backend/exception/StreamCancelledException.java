@@ -0,0 +1,9 @@
+package com.Shubham.ai_chatbot_backend.exception;
+
+// Thrown by a streaming consumer to stop generation because nobody is listening any more
+public class StreamCancelledException extends RuntimeException {
+
+    public StreamCancelledException(String message) {
+        super(message);
+    }
+}
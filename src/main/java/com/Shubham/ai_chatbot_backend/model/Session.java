@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sessions")
+@Table(name = "sessions", indexes = {
+        @Index(name = "idx_sessions_expires_at", columnList = "expires_at")
+})
 public class Session {
 
     @Id
@@ -14,7 +16,7 @@ public class Session {
     @Column(name = "session_token", unique = true, nullable = false)
     private String sessionToken;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
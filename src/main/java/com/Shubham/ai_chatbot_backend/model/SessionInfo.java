@@ -0,0 +1,11 @@
+package com.Shubham.ai_chatbot_backend.model;
+
+import java.time.LocalDateTime;
+
+// Lightweight view of a valid session - everything the hot path needs without loading User
+public record SessionInfo(Long userId, String username, LocalDateTime expiresAt) {
+
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(expiresAt);
+    }
+}
@@ -0,0 +1,8 @@
+package com.Shubham.ai_chatbot_backend.model;
+
+import java.time.LocalDateTime;
+
+// Row shape for the user listing endpoints - read straight from a JPQL projection
+public record UserListing(Long id, String username, String email, String avatar,
+                          LocalDateTime createdAt, LocalDateTime lastLogin, int messageCount) {
+}
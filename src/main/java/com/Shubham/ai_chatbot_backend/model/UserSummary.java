@@ -0,0 +1,5 @@
+package com.Shubham.ai_chatbot_backend.model;
+
+// Public profile fields only - never carries password or bio
+public record UserSummary(Long id, String username, String email, String avatar) {
+}
@@ -0,0 +1,38 @@
+package com.Shubham.ai_chatbot_backend.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "user_tool_usage", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_tool_usage_user_tool", columnNames = {"user_id", "tool"})
+})
+public class UserToolUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String tool;
+
+    @Column(name = "usage_count", nullable = false)
+    private long usageCount = 0;
+
+    public UserToolUsage() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getTool() { return tool; }
+    public void setTool(String tool) { this.tool = tool; }
+
+    public long getUsageCount() { return usageCount; }
+    public void setUsageCount(long usageCount) { this.usageCount = usageCount; }
+}
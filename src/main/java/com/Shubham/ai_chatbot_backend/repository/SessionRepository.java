@@ -1,22 +1,36 @@
 package com.Shubham.ai_chatbot_backend.repository;
 
 import com.Shubham.ai_chatbot_backend.model.Session;
+import com.Shubham.ai_chatbot_backend.model.SessionInfo;
+import com.Shubham.ai_chatbot_backend.model.UserSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, Long> {
-    Optional<Session> findBySessionToken(String sessionToken);
+    @Query("SELECT new com.Shubham.ai_chatbot_backend.model.SessionInfo(u.id, u.username, s.expiresAt) " +
+            "FROM Session s JOIN s.user u WHERE s.sessionToken = :sessionToken")
+    Optional<SessionInfo> findSessionInfoBySessionToken(@Param("sessionToken") String sessionToken);
+
+    @Query("SELECT new com.Shubham.ai_chatbot_backend.model.UserSummary(u.id, u.username, u.email, u.avatar) " +
+            "FROM Session s JOIN s.user u " +
+            "WHERE s.sessionToken = :sessionToken AND s.expiresAt > CURRENT_TIMESTAMP")
+    Optional<UserSummary> findUserSummaryBySessionToken(@Param("sessionToken") String sessionToken);
 
     @Modifying
     @Query("DELETE FROM Session s WHERE s.sessionToken = :sessionToken")
     void deleteBySessionToken(@Param("sessionToken") String sessionToken);
 
+    // Bounded delete so the purge job never holds long row locks; uses idx_sessions_expires_at
     @Modifying
-    @Query("DELETE FROM Session s WHERE s.expiresAt < CURRENT_TIMESTAMP")
-    void deleteExpiredSessions();
+    @Transactional
+    @Query(value = "DELETE FROM sessions WHERE id IN " +
+            "(SELECT id FROM sessions WHERE expires_at < CURRENT_TIMESTAMP LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteExpiredSessionsBatch(@Param("batchSize") int batchSize);
 }
\ No newline at end of file
@@ -1,11 +1,20 @@
 package com.Shubham.ai_chatbot_backend.repository;
 
 import com.Shubham.ai_chatbot_backend.model.User;
+import com.Shubham.ai_chatbot_backend.model.UserListing;
+import com.Shubham.ai_chatbot_backend.model.UserSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,6 +23,32 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
 
-    @Query("SELECT u FROM User u WHERE u.email = :email AND u.password = :password")
-    Optional<User> findByEmailAndPassword(@Param("email") String email, @Param("password") String password);
+    @Query("SELECT new com.Shubham.ai_chatbot_backend.model.UserSummary(u.id, u.username, u.email, u.avatar) " +
+            "FROM User u WHERE u.id = :id")
+    Optional<UserSummary> findSummaryById(@Param("id") Long id);
+
+    String USER_LISTING_SELECT = "SELECT new com.Shubham.ai_chatbot_backend.model.UserListing(" +
+            "u.id, u.username, u.email, u.avatar, u.createdAt, u.lastLogin, u.messageCount) FROM User u ";
+
+    // Keyset pagination - cost stays constant however deep the page is
+    @Query(USER_LISTING_SELECT + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserListing> findListingsAfter(@Param("afterId") long afterId, Limit limit);
+
+    // Forward-only cursor; must be consumed inside a read-only transaction
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query(USER_LISTING_SELECT + "ORDER BY u.id")
+    Stream<UserListing> streamAllListings();
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username FROM User u")
+    Stream<String> streamAllUsernames();
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
\ No newline at end of file
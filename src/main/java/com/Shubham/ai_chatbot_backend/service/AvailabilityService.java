@@ -0,0 +1,185 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Username/email availability backed by Bloom filters.
+ *
+ * A Bloom filter never gives false negatives, so "not in filter" means the value is
+ * definitely free and is answered from memory. Only a possible hit falls through to
+ * the database. Until the filters are built at startup every check goes to the DB.
+ *
+ * The filters exist from construction and registrations are always added to them, so
+ * a user registered while the existing rows are still being read is not missed.
+ */
+@Service
+public class AvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${availability.bloom.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${availability.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private BloomFilter usernames;
+    private BloomFilter emails;
+
+    // Set once the existing users have been loaded; until then the filters are incomplete
+    private volatile boolean ready;
+
+    // "filter" = answered from memory, "database" = fell through to an exists query
+    private Counter filterAnswers;
+    private Counter databaseAnswers;
+
+    @PostConstruct
+    public void init() {
+        this.filterAnswers = Counter.builder("availability.checks")
+                .description("Availability checks by where they were answered")
+                .tag("answered_by", "filter")
+                .register(meterRegistry);
+        this.databaseAnswers = Counter.builder("availability.checks")
+                .description("Availability checks by where they were answered")
+                .tag("answered_by", "database")
+                .register(meterRegistry);
+
+        this.usernames = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.emails = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildFilters() {
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<String> names = userRepository.streamAllUsernames()) {
+                    names.forEach(usernames::add);
+                }
+                try (Stream<String> addresses = userRepository.streamAllEmails()) {
+                    addresses.forEach(emails::add);
+                }
+            });
+
+            this.ready = true;
+            log.info("Availability filters built");
+        } catch (Exception e) {
+            log.warn("Failed to build availability filters, using DB checks", e);
+        }
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        if (ready && !usernames.mightContain(username)) {
+            filterAnswers.increment();
+            return true;
+        }
+        databaseAnswers.increment();
+        return !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        if (ready && !emails.mightContain(email)) {
+            filterAnswers.increment();
+            return true;
+        }
+        databaseAnswers.increment();
+        return !userRepository.existsByEmail(email);
+    }
+
+    // Called after a successful registration so the new values stop reading as free,
+    // including while buildFilters() is still reading rows committed before this one
+    public void recordRegistration(String username, String email) {
+        usernames.add(username);
+        emails.add(email);
+    }
+
+    // Lock-free Bloom filter over an AtomicLongArray, using Kirsch-Mitzenmacher double hashing
+    static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            long m = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, m);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+
+        void add(String value) {
+            if (value == null) {
+                return;
+            }
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            if (value == null) {
+                return false;
+            }
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a over the chars, finished with a murmur3 fmix64 avalanche
+        private static long hash64(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
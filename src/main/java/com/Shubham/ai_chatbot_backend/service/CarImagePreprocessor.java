@@ -0,0 +1,110 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Decodes car uploads straight to the model's input size.
+ *
+ * A phone photo is decoded with source subsampling, so only every n-th pixel is
+ * ever materialised, then scaled to input-size x input-size. The worker gets
+ * ~67KB of raw RGB instead of a 12 MP file it would have to decode only to
+ * throw almost all of it away.
+ */
+@Component
+public class CarImagePreprocessor {
+
+    @Value("${car.image.input-size:150}")
+    private int inputSize;
+
+    @Value("${car.image.max-pixels:50000000}")
+    private long maxPixels;
+
+    /** Raw RGB, row-major, 3 bytes per pixel. */
+    public record ModelImage(int width, int height, byte[] rgb) {
+    }
+
+    @PostConstruct
+    public void init() {
+        // Otherwise every ImageInputStream spools the upload to a temp file first
+        ImageIO.setUseCache(false);
+    }
+
+    /**
+     * Returns the downscaled image, or null when ImageIO has no reader for the format
+     * (the caller can still hand the original file to PIL). Rejects images whose
+     * header declares more than car.image.max-pixels before decoding any pixel data.
+     */
+    public ModelImage downscale(InputStream in) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            if (stream == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image is " + width + "x" + height
+                            + ", above the " + maxPixels + " pixel limit");
+                }
+
+                // Keep at least twice the target on the short side so the final scale still averages
+                int step = Math.max(1, Math.min(width, height) / (2 * inputSize));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                return new ModelImage(inputSize, inputSize, toRgb(scale(decoded)));
+            } catch (IIOException e) {
+                // Unsupported variant (e.g. CMYK JPEG); PIL may still cope
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Square, ignoring aspect ratio, to match the PIL resize the model was trained with
+    private BufferedImage scale(BufferedImage source) {
+        BufferedImage scaled = new BufferedImage(inputSize, inputSize, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, inputSize, inputSize, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private static byte[] toRgb(BufferedImage bgrImage) {
+        byte[] bgr = ((DataBufferByte) bgrImage.getRaster().getDataBuffer()).getData();
+        byte[] rgb = new byte[bgr.length];
+        for (int i = 0; i < bgr.length; i += 3) {
+            rgb[i] = bgr[i + 2];
+            rgb[i + 1] = bgr[i + 1];
+            rgb[i + 2] = bgr[i];
+        }
+        return rgb;
+    }
+}
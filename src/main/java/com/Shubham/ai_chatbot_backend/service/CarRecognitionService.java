@@ -1,101 +1,335 @@
 package com.Shubham.ai_chatbot_backend.service;
 
-import com.google.gson.Gson;
+import com.Shubham.ai_chatbot_backend.dto.CarBatchModelInput;
+import com.Shubham.ai_chatbot_backend.dto.CarBatchResult;
+import com.Shubham.ai_chatbot_backend.dto.CarModelInput;
+import com.Shubham.ai_chatbot_backend.dto.CarRecognitionResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.io.*;
 
 @Service
 public class CarRecognitionService {
 
-    private final Gson gson = new Gson();
+    private static final Logger log = LoggerFactory.getLogger(CarRecognitionService.class);
 
-    public Map<String, Object> recognizeCar(MultipartFile imageFile) {
+    // What the single-image endpoint has always returned
+    private static final int DEFAULT_TOP_K = 3;
+    private static final int MAX_TOP_K = 10;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InferenceMetrics inferenceMetrics;
+
+    @Autowired
+    private ModelRegistry modelRegistry;
+
+    @Autowired
+    private ModelProcessLauncher modelProcessLauncher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CarImagePreprocessor carImagePreprocessor;
+
+    // float32 (Keras), int8 (quantized TFLite, falls back to float32 when not built), or auto:
+    // int8 when model zygotes are on, since only a TFLite model can be loaded before the fork
+    @Value("${car.model.variant:auto}")
+    private String modelVariant;
+
+    @Value("${model.zygote.enabled:true}")
+    private boolean zygoteEnabled;
+
+    @Value("${car.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${car.cache.ttl-minutes:60}")
+    private long cacheTtlMinutes;
+
+    @Value("${car.batch.max-images:16}")
+    private int maxBatchImages;
+
+    // (model hash, top-k, image SHA-256) -> result; people re-upload the same photo a lot
+    private Cache<String, CarRecognitionResult> predictionCache;
+
+    private ThreadPoolExecutor decodeExecutor;
+
+    @PostConstruct
+    public void init() {
+        this.predictionCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, predictionCache, "car-predictions");
+
+        // Decoding is CPU-bound; once the queue is full the request thread decodes its own images
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.decodeExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * maxBatchImages),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "car-decode-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Unlike CallerRunsPolicy this also runs after shutdown, so no future is left pending
+                (runnable, executor) -> runnable.run());
+        new ExecutorServiceMetrics(decodeExecutor, "car-decode", Tags.empty()).bindTo(meterRegistry);
+
+        if ("auto".equalsIgnoreCase(modelVariant) && zygoteEnabled) {
+            try (ModelRegistry.Lease quantized = modelRegistry.acquire(ModelRegistry.CAR_INT8)) {
+                if (quantized == null) {
+                    log.warn("No int8 car model (build with -P car-model); forked car calls will each load the Keras model");
+                }
+            }
+        }
+    }
+
+    private boolean prefersInt8() {
+        return "int8".equalsIgnoreCase(modelVariant) || ("auto".equalsIgnoreCase(modelVariant) && zygoteEnabled);
+    }
+
+    private ModelRegistry.Lease acquireModel() {
+        if (prefersInt8()) {
+            ModelRegistry.Lease quantized = modelRegistry.acquire(ModelRegistry.CAR_INT8);
+            if (quantized != null) {
+                return quantized;
+            }
+        }
+        return modelRegistry.acquire(ModelRegistry.CAR);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        decodeExecutor.shutdown();
+    }
+
+    public CarRecognitionResult recognizeCar(MultipartFile imageFile) {
+        try (ModelRegistry.Lease model = acquireModel()) {
+            if (model == null) {
+                return CarRecognitionResult.failure("Model files not found");
+            }
+
+            // Hashing first, so a repeat is answered before anything is decoded or written. A miss
+            // reads the upload twice, but hashing costs ~1ms per MB against ~90ms for the decode a
+            // hit skips, and the decoder stops at the end of the image rather than of the stream
+            String cacheKey = cacheKey(model, DEFAULT_TOP_K, imageFile);
+            CarRecognitionResult cached = predictionCache.getIfPresent(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+
+            InferenceMetrics.Call call = inferenceMetrics.start(model.name());
+            PreparedImage image = prepare(imageFile);
+            try {
+                String jsonOutput = runCarScript(model, image.input(), call);
+                if (jsonOutput == null) {
+                    return CarRecognitionResult.failure("Python script execution failed");
+                }
+
+                CarRecognitionResult result = call.parse(jsonOutput, CarRecognitionResult.class);
+                if (Boolean.TRUE.equals(result.success())) {
+                    predictionCache.put(cacheKey, result);
+                }
+                return result;
+            } finally {
+                image.delete();
+                call.finish();
+            }
+        } catch (Exception e) {
+            log.error("Car recognition error", e);
+            return CarRecognitionResult.failure("Car recognition failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recognises several images with one model call: uploads are hashed and decoded in
+     * parallel, cache misses go through the CNN as a single batch, and each image gets
+     * its own top-k brands. Results come back in upload order.
+     */
+    public CarBatchResult recognizeCars(List<MultipartFile> imageFiles, int topK) {
+        if (imageFiles == null || imageFiles.isEmpty()) {
+            return CarBatchResult.failure("No images uploaded");
+        }
+        if (imageFiles.size() > maxBatchImages) {
+            return CarBatchResult.failure("At most " + maxBatchImages + " images per batch");
+        }
+        int k = Math.max(1, Math.min(topK, MAX_TOP_K));
+
+        try (ModelRegistry.Lease model = acquireModel()) {
+            if (model == null) {
+                return CarBatchResult.failure("Model files not found");
+            }
+
+            List<CompletableFuture<BatchSlot>> futures = new ArrayList<>(imageFiles.size());
+            for (MultipartFile imageFile : imageFiles) {
+                futures.add(CompletableFuture.supplyAsync(() -> slotFor(model, k, imageFile), decodeExecutor));
+            }
+            List<BatchSlot> slots = futures.stream().map(CompletableFuture::join).toList();
+
+            List<BatchSlot> pending = slots.stream().filter(slot -> slot.image() != null).toList();
+            try {
+                if (!pending.isEmpty()) {
+                    runBatch(model, k, pending);
+                }
+            } finally {
+                pending.forEach(slot -> slot.image().delete());
+            }
+
+            return CarBatchResult.of(slots.stream().map(BatchSlot::result).toList());
+
+        } catch (Exception e) {
+            log.error("Batch car recognition error", e);
+            return CarBatchResult.failure("Car recognition failed: " + e.getMessage());
+        }
+    }
+
+    // Runs on the decode pool: cached answer, a prepared model input, or a per-image failure
+    private BatchSlot slotFor(ModelRegistry.Lease model, int topK, MultipartFile imageFile) {
+        BatchSlot slot = new BatchSlot();
         try {
-            return callPythonCarModel(imageFile);
+            slot.cacheKey = cacheKey(model, topK, imageFile);
+            slot.result = predictionCache.getIfPresent(slot.cacheKey);
+            if (slot.result == null) {
+                slot.image = prepare(imageFile);
+            }
         } catch (Exception e) {
-            System.out.println("Car recognition error: " + e.getMessage());
-            return Map.of(
-                    "success", false,
-                    "error", "Car recognition failed: " + e.getMessage()
-            );
+            log.debug("Could not read batch image {}: {}", imageFile.getOriginalFilename(), e.getMessage());
+            slot.result = CarRecognitionResult.failure("Could not read image: " + e.getMessage());
         }
+        return slot;
     }
 
-    private Map<String, Object> callPythonCarModel(MultipartFile imageFile) throws Exception {
-        // Save image temporarily
-        File tempFile = File.createTempFile("car_image", ".jpg");
-        imageFile.transferTo(tempFile);
+    private void runBatch(ModelRegistry.Lease model, int topK, List<BatchSlot> pending) throws Exception {
+        InferenceMetrics.Call call = inferenceMetrics.start(model.name() + "-batch");
+        try {
+            List<CarModelInput> inputs = pending.stream().map(slot -> slot.image().input()).toList();
+            String jsonOutput = runCarScript(model, new CarBatchModelInput(inputs, topK), call);
 
-        // Get models directory
-        String modelsDir = getModelsDirectory();
-        String pythonScript = modelsDir + "/car_recognition.py";
+            CarBatchResult output = jsonOutput == null ? null : call.parse(jsonOutput, CarBatchResult.class);
+            if (output == null || !Boolean.TRUE.equals(output.success())
+                    || output.results() == null || output.results().size() != pending.size()) {
+                String error = output != null && output.error() != null ? output.error() : "Python script execution failed";
+                pending.forEach(slot -> slot.result = CarRecognitionResult.failure(error));
+                return;
+            }
 
-        // Check if files exist
-        File scriptFile = new File(pythonScript);
-        File modelFile = new File(modelsDir + "/car_model.h5");
+            for (int i = 0; i < pending.size(); i++) {
+                BatchSlot slot = pending.get(i);
+                slot.result = output.results().get(i);
+                if (Boolean.TRUE.equals(slot.result.success())) {
+                    predictionCache.put(slot.cacheKey, slot.result);
+                }
+            }
+        } finally {
+            call.finish();
+        }
+    }
 
-        if (!scriptFile.exists() || !modelFile.exists()) {
-            tempFile.delete();
-            return Map.of("success", false, "error", "Model files not found");
+    // Keyed by model variant and version as well, so a hot-swapped model never serves the old one's answers
+    private String cacheKey(ModelRegistry.Lease model, int topK, MultipartFile imageFile) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new DigestInputStream(imageFile.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
         }
+        return model.name() + ':' + model.hash() + ':' + topK + ':' + HexFormat.of().formatHex(digest.digest());
+    }
 
-        // Prepare input data
-        Map<String, Object> inputData = Map.of("image_path", tempFile.getAbsolutePath());
-        String inputJson = gson.toJson(inputData);
+    // Second pass over the upload: decode and downscale, or hand the original to PIL
+    private PreparedImage prepare(MultipartFile imageFile) throws IOException {
+        CarImagePreprocessor.ModelImage pixels;
+        try (InputStream in = imageFile.getInputStream()) {
+            pixels = carImagePreprocessor.downscale(in);
+        }
+
+        File tempFile;
+        if (pixels != null) {
+            tempFile = File.createTempFile("car_pixels", ".rgb");
+            Files.write(tempFile.toPath(), pixels.rgb());
+            return new PreparedImage(tempFile,
+                    CarModelInput.pixels(tempFile.getAbsolutePath(), pixels.width(), pixels.height()));
+        }
+
+        // Not a format ImageIO can decode; let PIL have the original. transferTo moves an
+        // upload that is already spooled to disk instead of reading it a third time
+        tempFile = File.createTempFile("car_image", ".jpg");
+        imageFile.transferTo(tempFile);
+        return new PreparedImage(tempFile, CarModelInput.image(tempFile.getAbsolutePath()));
+    }
 
+    // Returns the script's JSON result line, or null if it failed
+    private String runCarScript(ModelRegistry.Lease model, Object input, InferenceMetrics.Call call) throws Exception {
         // Write JSON to temporary file
         File inputJsonFile = File.createTempFile("car_input", ".json");
         try (FileWriter writer = new FileWriter(inputJsonFile)) {
-            writer.write(inputJson);
+            writer.write(objectMapper.writeValueAsString(input));
         }
 
-        // Execute Python script
-        ProcessBuilder processBuilder = new ProcessBuilder("/opt/venv/bin/python", pythonScript, inputJsonFile.getAbsolutePath());
-        processBuilder.directory(new File(modelsDir));
-        processBuilder.redirectErrorStream(true);
+        // Execute Python script; the artifact decides float32 or int8
+        try (ModelProcessLauncher.ModelProcess process = modelProcessLauncher.start(model, inputJsonFile,
+                Map.of("CAR_MODEL_FILE", model.artifact().getFileName().toString()))) {
+            // Read output
+            BufferedReader reader = process.output();
+            String jsonOutput = null;
+            String line;
 
-        Process process = processBuilder.start();
+            while ((line = reader.readLine()) != null) {
+                call.onOutputLine(line);
+                if (line.trim().startsWith("{")) {
+                    jsonOutput = line.trim();
+                    break;
+                }
+            }
 
-        // Read output
-        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        String jsonOutput = null;
-        String line;
+            int exitCode = process.waitFor();
+            return exitCode != 0 ? null : jsonOutput;
+        } finally {
+            inputJsonFile.delete();
+        }
+    }
 
-        while ((line = reader.readLine()) != null) {
-            if (line.trim().startsWith("{")) {
-                jsonOutput = line.trim();
-                break;
-            }
+    private record PreparedImage(File file, CarModelInput input) {
+        void delete() {
+            file.delete();
         }
+    }
 
-        // Clean up
-        tempFile.delete();
-        inputJsonFile.delete();
+    private static final class BatchSlot {
+        private String cacheKey;
+        private PreparedImage image;
+        private CarRecognitionResult result;
 
-        int exitCode = process.waitFor();
-        if (exitCode != 0 || jsonOutput == null) {
-            return Map.of("success", false, "error", "Python script execution failed");
+        PreparedImage image() {
+            return image;
         }
 
-        return gson.fromJson(jsonOutput, Map.class);
-    }
-
-    private String getModelsDirectory() {
-        String[] possiblePaths = {
-                "src/main/resources/models",
-                "target/classes/models",
-                "models",
-                "."
-        };
-
-        for (String path : possiblePaths) {
-            File dir = new File(path);
-            if (dir.exists()) {
-                return dir.getAbsolutePath();
-            }
+        CarRecognitionResult result() {
+            return result;
         }
-        return new File(".").getAbsolutePath();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal streaming EXIF parser for JPEG: walks the marker segments up to the start of
+ * scan and pulls the orientation tag and the embedded thumbnail out of the APP1 block.
+ * Never touches the compressed image data, so the cost is independent of resolution.
+ */
+final class ExifReader {
+
+    record Exif(Integer orientation, byte[] thumbnail) {
+        static final Exif NONE = new Exif(null, null);
+    }
+
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int TAG_ORIENTATION = 0x0112;
+    private static final int TAG_THUMBNAIL_OFFSET = 0x0201;
+    private static final int TAG_THUMBNAIL_LENGTH = 0x0202;
+
+    private ExifReader() {
+    }
+
+    static Exif read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        try {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return Exif.NONE;
+            }
+            while (true) {
+                if (in.readUnsignedByte() != 0xFF) {
+                    return Exif.NONE;
+                }
+                int marker;
+                do {
+                    marker = in.readUnsignedByte();
+                } while (marker == 0xFF);
+
+                // Start of scan or end of image: no EXIF before the pixel data
+                if (marker == 0xDA || marker == 0xD9) {
+                    return Exif.NONE;
+                }
+                // Standalone markers carry no length
+                if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                    continue;
+                }
+
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return Exif.NONE;
+                }
+                if (marker == 0xE1) {
+                    byte[] segment = in.readNBytes(length);
+                    if (segment.length > EXIF_HEADER.length
+                            && Arrays.equals(segment, 0, EXIF_HEADER.length, EXIF_HEADER, 0, EXIF_HEADER.length)) {
+                        return parseTiff(ByteBuffer.wrap(segment, EXIF_HEADER.length, segment.length - EXIF_HEADER.length).slice());
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (EOFException e) {
+            return Exif.NONE;
+        }
+    }
+
+    private static Exif parseTiff(ByteBuffer tiff) {
+        try {
+            short byteOrder = tiff.getShort(0);
+            if (byteOrder == 0x4949) {
+                tiff.order(ByteOrder.LITTLE_ENDIAN);
+            } else if (byteOrder == 0x4D4D) {
+                tiff.order(ByteOrder.BIG_ENDIAN);
+            } else {
+                return Exif.NONE;
+            }
+            if (tiff.getShort(2) != 42) {
+                return Exif.NONE;
+            }
+
+            // IFD0 holds the orientation; the IFD it links to (IFD1) describes the thumbnail
+            int ifd0 = tiff.getInt(4);
+            Integer orientation = null;
+            int entries = Short.toUnsignedInt(tiff.getShort(ifd0));
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd0 + 2 + i * 12;
+                if (Short.toUnsignedInt(tiff.getShort(entry)) == TAG_ORIENTATION) {
+                    orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                }
+            }
+
+            byte[] thumbnail = null;
+            int ifd1 = tiff.getInt(ifd0 + 2 + entries * 12);
+            if (ifd1 > 0 && ifd1 < tiff.limit()) {
+                int offset = -1;
+                int length = -1;
+                int thumbEntries = Short.toUnsignedInt(tiff.getShort(ifd1));
+                for (int i = 0; i < thumbEntries; i++) {
+                    int entry = ifd1 + 2 + i * 12;
+                    int tag = Short.toUnsignedInt(tiff.getShort(entry));
+                    if (tag == TAG_THUMBNAIL_OFFSET) {
+                        offset = tiff.getInt(entry + 8);
+                    } else if (tag == TAG_THUMBNAIL_LENGTH) {
+                        length = tiff.getInt(entry + 8);
+                    }
+                }
+                if (offset > 0 && length > 0 && offset < tiff.limit() && length <= tiff.limit() - offset) {
+                    thumbnail = new byte[length];
+                    tiff.get(offset, thumbnail);
+                }
+            }
+            return new Exif(orientation, thumbnail);
+
+        } catch (IndexOutOfBoundsException e) {
+            // Truncated or corrupt EXIF; treat as absent rather than failing the upload
+            return Exif.NONE;
+        }
+    }
+}
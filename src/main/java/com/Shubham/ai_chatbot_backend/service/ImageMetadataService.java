@@ -0,0 +1,163 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.dto.ImageMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+/**
+ * Cheap image analysis for /image-analysis, used as a pre-filter before car recognition.
+ *
+ * Format, dimensions and colour model come from the ImageIO reader's header parsing and
+ * EXIF from ExifReader, so none of it depends on the resolution. The perceptual hash
+ * (a 64-bit difference hash) is taken from the embedded thumbnail when there is one;
+ * otherwise only images up to image.analysis.hash-max-pixels are decoded for it.
+ */
+@Service
+public class ImageMetadataService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageMetadataService.class);
+
+    // dHash compares horizontally adjacent pixels of a 9x8 grey thumbnail: 8x8 = 64 bits
+    private static final int HASH_WIDTH = 9;
+    private static final int HASH_HEIGHT = 8;
+
+    @Value("${image.analysis.hash-max-pixels:250000}")
+    private long hashMaxPixels;
+
+    /** Returns null when no ImageIO reader recognises the upload. */
+    public ImageMetadata analyze(MultipartFile imageFile) throws IOException {
+        ExifReader.Exif exif;
+        try (InputStream in = imageFile.getInputStream()) {
+            exif = ExifReader.read(in);
+        }
+
+        // Explicit memory cache: ImageIO's default may spool the stream to a temp file
+        try (InputStream in = imageFile.getInputStream();
+             ImageInputStream stream = new MemoryCacheImageInputStream(in)) {
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, false, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                ColorModel colorModel = colorModel(reader);
+
+                HashInput hashInput = hashInput(reader, exif, width, height);
+
+                return new ImageMetadata(
+                        reader.getFormatName().toLowerCase(),
+                        width,
+                        height,
+                        colorModel == null ? null : colorSpaceName(colorModel),
+                        colorModel == null ? null : colorModel.getPixelSize(),
+                        colorModel == null ? null : colorModel.hasAlpha(),
+                        exif.orientation(),
+                        hashInput == null ? null : differenceHash(hashInput.image()),
+                        hashInput == null ? null : hashInput.source());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private record HashInput(BufferedImage image, String source) {
+    }
+
+    // Cheapest pixels available: EXIF thumbnail, then a reader-level thumbnail (JFIF), then small images only
+    private HashInput hashInput(ImageReader reader, ExifReader.Exif exif, int width, int height) throws IOException {
+        if (exif.thumbnail() != null) {
+            try {
+                BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(exif.thumbnail()));
+                if (thumbnail != null) {
+                    return new HashInput(thumbnail, "exif_thumbnail");
+                }
+            } catch (IOException e) {
+                log.debug("Unreadable EXIF thumbnail: {}", e.getMessage());
+            }
+        }
+        if (reader.readerSupportsThumbnails() && reader.hasThumbnails(0)) {
+            return new HashInput(reader.readThumbnail(0, 0), "embedded_thumbnail");
+        }
+        if ((long) width * height <= hashMaxPixels) {
+            ImageReadParam param = reader.getDefaultReadParam();
+            int step = Math.max(1, Math.min(width, height) / (4 * HASH_WIDTH));
+            param.setSourceSubsampling(step, step, 0, 0);
+            return new HashInput(reader.read(0, param), "subsampled");
+        }
+        return null;
+    }
+
+    // Raw type is what the file stores; not every reader can say without decoding, so fall back
+    private static ColorModel colorModel(ImageReader reader) {
+        try {
+            ImageTypeSpecifier type = reader.getRawImageType(0);
+            if (type == null) {
+                Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+                type = types.hasNext() ? types.next() : null;
+            }
+            return type == null ? null : type.getColorModel();
+        } catch (IOException e) {
+            log.debug("No colour model in image header: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String colorSpaceName(ColorModel colorModel) {
+        if (colorModel instanceof IndexColorModel) {
+            return "Indexed";
+        }
+        return switch (colorModel.getColorSpace().getType()) {
+            case ColorSpace.TYPE_RGB -> colorModel.hasAlpha() ? "RGBA" : "RGB";
+            case ColorSpace.TYPE_GRAY -> colorModel.hasAlpha() ? "GrayAlpha" : "Gray";
+            case ColorSpace.TYPE_CMYK -> "CMYK";
+            case ColorSpace.TYPE_YCbCr -> "YCbCr";
+            default -> "Other";
+        };
+    }
+
+    private static String differenceHash(BufferedImage image) {
+        BufferedImage grey = new BufferedImage(HASH_WIDTH, HASH_HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = grey.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, HASH_WIDTH, HASH_HEIGHT, null);
+        } finally {
+            g.dispose();
+        }
+
+        long hash = 0;
+        for (int y = 0; y < HASH_HEIGHT; y++) {
+            for (int x = 0; x < HASH_WIDTH - 1; x++) {
+                int left = grey.getRaster().getSample(x, y, 0);
+                int right = grey.getRaster().getSample(x + 1, y, 0);
+                hash = (hash << 1) | (left > right ? 1 : 0);
+            }
+        }
+        return HexFormat.of().toHexDigits(hash);
+    }
+}
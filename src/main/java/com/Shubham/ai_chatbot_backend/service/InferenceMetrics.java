@@ -0,0 +1,109 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the Python model calls, split by phase.
+ *
+ * spawn covers everything up to the script's first line of output (input file, then a
+ * zygote fork, or process start, interpreter and imports); load and inference are
+ * measured inside the script and reported on its "TIMINGS {...}" line; parse is the
+ * JSON mapping of the result. model.call times the whole invocation, tagged by outcome.
+ */
+@Component
+public class InferenceMetrics {
+
+    public static final String TIMINGS_PREFIX = "TIMINGS ";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Meters are looked up once per (model, phase) rather than through the registry on every call
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public Call start(String model) {
+        return new Call(model, System.nanoTime());
+    }
+
+    private Timer phaseTimer(String model, String phase) {
+        return timers.computeIfAbsent(model + ':' + phase, key -> Timer.builder("model.call.phase")
+                .description("Time spent in one phase of a Python model call")
+                .tag("model", model)
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Timer callTimer(String model, String outcome) {
+        return timers.computeIfAbsent(model + '#' + outcome, key -> Timer.builder("model.call")
+                .description("End-to-end time of a Python model call")
+                .tag("model", model)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /** One model invocation; not thread-safe, owned by the calling request thread. */
+    public final class Call {
+
+        private final String model;
+        private final long startNanos;
+        private boolean sawOutput;
+        private boolean succeeded;
+
+        private Call(String model, long startNanos) {
+            this.model = model;
+            this.startNanos = startNanos;
+        }
+
+        // Feed every stdout line; returns true for the timings line so callers can skip it
+        public boolean onOutputLine(String line) {
+            if (!sawOutput) {
+                sawOutput = true;
+                phaseTimer(model, "spawn").record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+            if (!line.startsWith(TIMINGS_PREFIX)) {
+                return false;
+            }
+            try {
+                JsonNode timings = objectMapper.readTree(line.substring(TIMINGS_PREFIX.length()));
+                recordMillis("load", timings.get("load_ms"));
+                recordMillis("inference", timings.get("inference_ms"));
+            } catch (IOException e) {
+                // Malformed timings only cost us the sample
+            }
+            return true;
+        }
+
+        public <T> T parse(String json, Class<T> type) throws IOException {
+            long parseStart = System.nanoTime();
+            T result = objectMapper.readValue(json, type);
+            phaseTimer(model, "parse").record(System.nanoTime() - parseStart, TimeUnit.NANOSECONDS);
+            succeeded = true;
+            return result;
+        }
+
+        public void finish() {
+            callTimer(model, succeeded ? "success" : "failure")
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void recordMillis(String phase, JsonNode millis) {
+            if (millis != null && millis.isNumber()) {
+                phaseTimer(model, phase).record((long) (millis.asDouble() * 1_000_000), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.jar.JarEntry;
+
+/**
+ * Unpacks the models bundled in the packaged jar into a directory the Python workers can read.
+ *
+ * The target is named after a hash of the bundled entries, so a restart of the same build
+ * finds its directory already there and skips extraction entirely, and a new build never
+ * reads files left behind by an old one. For jar entries the hash covers name, size and
+ * CRC from the central directory, which needs no decompression.
+ */
+final class ModelExtractor {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelExtractor.class);
+
+    private static final String LOCATION_PATTERN = "classpath:models/*";
+    private static final String COMPLETE_MARKER = ".complete";
+
+    private ModelExtractor() {
+    }
+
+    /** Returns the extracted directory, or null when there are no bundled models. */
+    static Path extract(Path cacheRoot) throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver(ModelExtractor.class.getClassLoader())
+                .getResources(LOCATION_PATTERN);
+
+        SortedMap<String, Resource> entries = new TreeMap<>();
+        for (Resource resource : resources) {
+            String name = resource.getFilename();
+            if (name != null && !name.isEmpty() && resource.isReadable()) {
+                entries.put(name, resource);
+            }
+        }
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        String key = fingerprint(entries);
+        Path target = cacheRoot.resolve(key);
+        if (Files.exists(target.resolve(COMPLETE_MARKER))) {
+            log.info("Reusing extracted models {}", target);
+            return target;
+        }
+
+        long started = System.nanoTime();
+        Files.createDirectories(cacheRoot);
+        Path staging = Files.createTempDirectory(cacheRoot, key + "-extracting");
+        try {
+            for (Map.Entry<String, Resource> entry : entries.entrySet()) {
+                try (InputStream in = entry.getValue().getInputStream()) {
+                    Files.copy(in, staging.resolve(entry.getKey()));
+                }
+            }
+            Files.createFile(staging.resolve(COMPLETE_MARKER));
+
+            try {
+                Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Another instance sharing the cache finished first; its copy is identical
+                log.debug("Models {} already extracted by another process", key);
+            }
+        } finally {
+            deleteQuietly(staging);
+        }
+
+        log.info("Extracted {} model files to {} in {} ms", entries.size(), target,
+                (System.nanoTime() - started) / 1_000_000);
+        return target;
+    }
+
+    private static String fingerprint(SortedMap<String, Resource> entries) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        for (Map.Entry<String, Resource> entry : entries.entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+
+            JarEntry jarEntry = jarEntry(entry.getValue());
+            if (jarEntry != null && jarEntry.getCrc() != -1 && jarEntry.getSize() != -1) {
+                digest.update((jarEntry.getSize() + ":" + jarEntry.getCrc()).getBytes(StandardCharsets.UTF_8));
+            } else {
+                // Not backed by a jar entry with metadata; fall back to hashing the bytes
+                byte[] buffer = new byte[64 * 1024];
+                try (InputStream in = new DigestInputStream(entry.getValue().getInputStream(), digest)) {
+                    while (in.read(buffer) != -1) {
+                        // digesting as we read
+                    }
+                }
+            }
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest()).substring(0, 32);
+    }
+
+    private static JarEntry jarEntry(Resource resource) {
+        try {
+            URLConnection connection = resource.getURL().openConnection();
+            if (connection instanceof JarURLConnection jarConnection) {
+                return jarConnection.getJarEntry();
+            }
+        } catch (IOException e) {
+            log.debug("No jar metadata for {}: {}", resource, e.getMessage());
+        }
+        return null;
+    }
+
+    private static void deleteQuietly(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            log.warn("Could not remove partial model extraction {}: {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts the Python model scripts. Each model version gets a zygote (model_zygote.py)
+ * that imports the script and preloads its libraries and model once, then forks a
+ * copy-on-write child per call; a call costs a fork instead of an interpreter start
+ * and a TensorFlow import, and a bad input still only ever crashes its own process.
+ *
+ * Until a model's zygote is ready, or if it dies, calls fall back to spawning the
+ * script directly, so callers see the same output and exit code either way.
+ *
+ * Zygotes live as long as the backend, so they are recycled: after model.zygote.max-calls
+ * forks, or when a poll of /proc finds one over model.zygote.max-memory-mb. The
+ * replacement is started alongside and only takes over once it has preloaded. A forked
+ * child over model.zygote.max-child-memory-mb is killed, failing just that call.
+ * Memory is the proportional set size, so pages still shared after fork are split
+ * between the processes sharing them rather than counted in full by each.
+ *
+ * Every call has a deadline of model.call-timeout-seconds, spawned or forked: a script
+ * still running then is killed (a forked child by SIGALRM from its zygote) and the
+ * caller's read or waitFor fails with an IOException instead of blocking its thread.
+ */
+@Component
+public class ModelProcessLauncher {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelProcessLauncher.class);
+
+    private static final String READY_LINE = "ZYGOTE READY";
+    private static final String EXIT_PREFIX = "ZYGOTE-EXIT ";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${model.python:/opt/venv/bin/python}")
+    private String pythonExecutable;
+
+    @Value("${model.call-timeout-seconds:120}")
+    private long callTimeoutSeconds;
+
+    @Value("${model.zygote.enabled:true}")
+    private boolean zygoteEnabled;
+
+    @Value("${model.zygote.restart-delay-ms:30000}")
+    private long restartDelayMillis;
+
+    @Value("${model.zygote.max-calls:500}")
+    private int maxCalls;
+
+    @Value("${model.zygote.max-memory-mb:256}")
+    private long maxMemoryMb;
+
+    @Value("${model.zygote.max-child-memory-mb:384}")
+    private long maxChildMemoryMb;
+
+    @Value("${model.zygote.memory-poll-ms:5000}")
+    private long memoryPollMillis;
+
+    // Model name -> zygote for its current version
+    private final Map<String, Zygote> zygotes = new ConcurrentHashMap<>();
+    // Last sampled zygote memory per model, for the gauge
+    private final Map<String, AtomicLong> memory = new ConcurrentHashMap<>();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private Path zygoteDir;
+    private Path zygoteScript;
+    private ScheduledExecutorService monitor;
+    private ScheduledExecutorService watchdog;
+
+    @PostConstruct
+    public void init() throws IOException {
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "model-call-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (!zygoteEnabled) {
+            log.info("Model zygotes disabled; every call spawns its script");
+            return;
+        }
+        // Short path of our own: Unix socket paths are limited to ~100 bytes
+        this.zygoteDir = Files.createTempDirectory("ai-chatbot-zygotes");
+        this.zygoteScript = zygoteDir.resolve("model_zygote.py");
+        try (InputStream in = new ClassPathResource("models/model_zygote.py").getInputStream()) {
+            Files.copy(in, zygoteScript, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        if (memoryPollMillis > 0 && Files.isDirectory(Path.of("/proc/self"))) {
+            this.monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "model-zygote-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            monitor.scheduleWithFixedDelay(this::checkMemory, memoryPollMillis, memoryPollMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+        zygotes.values().forEach(Zygote::stop);
+        zygotes.clear();
+        if (zygoteDir != null) {
+            try (var files = Files.list(zygoteDir)) {
+                files.forEach(file -> file.toFile().delete());
+            } catch (IOException e) {
+                log.debug("Could not clean up {}: {}", zygoteDir, e.getMessage());
+            }
+            zygoteDir.toFile().delete();
+        }
+    }
+
+    /**
+     * Runs the model's script on one input file. The environment is applied to the
+     * zygote when it starts, so it must be the same for every call to a model.
+     */
+    public ModelProcess start(ModelRegistry.Lease model, File inputFile, Map<String, String> environment) throws IOException {
+        if (zygoteEnabled) {
+            Zygote zygote = zygoteFor(model, environment);
+            if (zygote.ready) {
+                try {
+                    ModelProcess process = zygote.fork(inputFile);
+                    if (maxCalls > 0 && zygote.calls.incrementAndGet() >= maxCalls) {
+                        recycle(zygote, "calls");
+                    }
+                    return process;
+                } catch (IOException e) {
+                    log.warn("Zygote for {} v{} not accepting calls ({}); spawning instead",
+                            model.name(), model.version(), e.getMessage());
+                    zygote.ready = false;
+                }
+            }
+        }
+
+        ProcessBuilder processBuilder = new ProcessBuilder(pythonExecutable, model.script().toString(), inputFile.getAbsolutePath());
+        processBuilder.directory(model.directory().toFile());
+        // stdout is a pipe, so Python would block-buffer it and the first line (the end of the
+        // "spawn" phase) would only arrive at exit; zygote children are line-buffered already
+        processBuilder.environment().put("PYTHONUNBUFFERED", "1");
+        processBuilder.environment().putAll(environment);
+        processBuilder.redirectErrorStream(true);
+        return new ModelProcess(processBuilder.start(), callTimeoutSeconds, watchdog);
+    }
+
+    // One zygote per model; a new version replaces it, a dead one is restarted after a pause
+    private Zygote zygoteFor(ModelRegistry.Lease model, Map<String, String> environment) {
+        Zygote zygote = zygotes.get(model.name());
+        if (zygote != null && zygote.hash.equals(model.hash()) && zygote.isUsable()) {
+            return zygote;
+        }
+        return zygotes.compute(model.name(), (name, current) -> {
+            if (current != null && current.hash.equals(model.hash()) && current.isUsable()) {
+                return current;
+            }
+            String reason = current == null ? "started" : current.hash.equals(model.hash()) ? "exited" : "new_version";
+            if (current != null) {
+                current.stop();
+            }
+            Zygote replacement = new Zygote(name, model.hash(), model.version(), model.script(), model.directory(), environment);
+            replacement.start(reason, null);
+            return replacement;
+        });
+    }
+
+    /**
+     * Starts a replacement next to the zygote and swaps it in once it has preloaded;
+     * the old one keeps serving until then and finishes its in-flight calls after.
+     */
+    private void recycle(Zygote old, String reason) {
+        if (System.currentTimeMillis() < old.recycleNotBefore || !old.recycling.compareAndSet(false, true)) {
+            return;
+        }
+        log.info("Recycling zygote for {} ({}, {} calls, {} MB)", old.label, reason, old.calls.get(), old.memoryBytes / (1024 * 1024));
+        Zygote replacement = new Zygote(old.name, old.hash, old.version, old.script, old.directory, old.environment);
+        replacement.start(reason, old);
+    }
+
+    private void checkMemory() {
+        try {
+            for (Zygote zygote : zygotes.values()) {
+                if (!zygote.isAlive()) {
+                    continue;
+                }
+                long bytes = memoryOf(zygote.process.pid());
+                if (bytes < 0) {
+                    continue;
+                }
+                zygote.memoryBytes = bytes;
+                memory.computeIfAbsent(zygote.name, this::registerMemoryGauge).set(bytes);
+                if (maxMemoryMb > 0 && bytes > maxMemoryMb * 1024 * 1024) {
+                    if (zygote.calls.get() > 0) {
+                        recycle(zygote, "memory");
+                    } else if (!zygote.overBudgetWhenIdle) {
+                        // Nothing has leaked yet, so a replacement would be just as big
+                        zygote.overBudgetWhenIdle = true;
+                        log.warn("Zygote for {} needs {} MB just after preload, over the {} MB limit; not recycling it",
+                                zygote.label, bytes / (1024 * 1024), maxMemoryMb);
+                    }
+                }
+
+                if (maxChildMemoryMb > 0) {
+                    zygote.process.children().forEach(child -> {
+                        long childBytes = memoryOf(child.pid());
+                        if (childBytes > maxChildMemoryMb * 1024 * 1024 && child.destroyForcibly()) {
+                            log.warn("Killed {} call (pid {}) at {} MB, over the {} MB limit",
+                                    zygote.label, child.pid(), childBytes / (1024 * 1024), maxChildMemoryMb);
+                            meterRegistry.counter("model.zygote.child.kills", "model", zygote.name).increment();
+                        }
+                    });
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep polling; a process exiting mid-check is expected
+            log.debug("Zygote memory check failed: {}", e.getMessage());
+        }
+    }
+
+    private AtomicLong registerMemoryGauge(String name) {
+        AtomicLong value = new AtomicLong();
+        Gauge.builder("model.zygote.memory", value, AtomicLong::get)
+                .description("Proportional set size of the model's zygote at the last poll")
+                .baseUnit("bytes")
+                .tag("model", name)
+                .register(meterRegistry);
+        return value;
+    }
+
+    // Pss from smaps_rollup where the kernel has it, else VmRSS; -1 once the process is gone
+    private static long memoryOf(long pid) {
+        Path proc = Path.of("/proc", Long.toString(pid));
+        try {
+            Path rollup = proc.resolve("smaps_rollup");
+            if (Files.isReadable(rollup)) {
+                long pss = kilobytes(rollup, "Pss:");
+                if (pss >= 0) {
+                    return pss * 1024;
+                }
+            }
+            long rss = kilobytes(proc.resolve("status"), "VmRSS:");
+            return rss < 0 ? -1 : rss * 1024;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static long kilobytes(Path file, String field) throws IOException {
+        for (String line : Files.readAllLines(file)) {
+            if (line.startsWith(field)) {
+                // "Pss:    123456 kB"
+                return Long.parseLong(line.substring(field.length()).trim().split("\\s+")[0]);
+            }
+        }
+        return -1;
+    }
+
+    private final class Zygote {
+
+        private final String name;
+        private final String hash;
+        private final int version;
+        private final Path script;
+        private final Path directory;
+        private final Map<String, String> environment;
+        private final String label;
+        // Every instance its own socket: a replacement binds while the old one still serves
+        private final Path socket;
+        private final long startedAt = System.currentTimeMillis();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicBoolean recycling = new AtomicBoolean();
+        private volatile long recycleNotBefore;
+        private Process process;
+        private volatile boolean ready;
+        private volatile boolean stopping;
+        private volatile long memoryBytes;
+        private boolean overBudgetWhenIdle;
+
+        private Zygote(String name, String hash, int version, Path script, Path directory, Map<String, String> environment) {
+            this.name = name;
+            this.hash = hash;
+            this.version = version;
+            this.script = script;
+            this.directory = directory;
+            this.environment = environment;
+            this.label = name + " v" + version;
+            this.socket = zygoteDir.resolve(name + "-" + generation.incrementAndGet() + ".sock");
+        }
+
+        // A dead zygote is left in place, and calls spawn, until restart-delay-ms has passed
+        private boolean isUsable() {
+            return isAlive() || System.currentTimeMillis() - startedAt < restartDelayMillis;
+        }
+
+        private boolean isAlive() {
+            return process != null && process.isAlive();
+        }
+
+        // predecessor is the zygote this one takes over from when ready, for a recycle
+        private void start(String reason, Zygote predecessor) {
+            ProcessBuilder processBuilder = new ProcessBuilder(pythonExecutable, zygoteScript.toString(),
+                    script.toString(), socket.toString(), Long.toString(callTimeoutSeconds));
+            processBuilder.directory(directory.toFile());
+            processBuilder.environment().putAll(environment);
+            processBuilder.redirectErrorStream(true);
+            try {
+                // stdin stays open: the zygote exits when it closes, i.e. when this JVM goes away
+                this.process = processBuilder.start();
+            } catch (IOException e) {
+                log.warn("Could not start zygote for {}: {}", label, e.getMessage());
+                if (predecessor != null) {
+                    predecessor.recycleFailed();
+                }
+                return;
+            }
+            meterRegistry.counter("model.zygote.restarts", "model", name, "reason", reason).increment();
+
+            Thread reader = new Thread(() -> watch(predecessor), "model-zygote-" + name);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        // Until READY the zygote is importing and preloading; after that it only logs
+        private void watch(Zygote predecessor) {
+            try (BufferedReader output = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    if (line.equals(READY_LINE)) {
+                        ready = true;
+                        log.info("Zygote for {} ready (pid {})", label, process.pid());
+                        if (predecessor != null) {
+                            takeOver(predecessor);
+                        }
+                    } else {
+                        log.debug("zygote {}: {}", label, line);
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("Lost zygote {} output: {}", label, e.getMessage());
+            }
+            ready = false;
+            if (predecessor != null && !predecessor.stopping) {
+                // Died while preloading; the old zygote carries on for now
+                predecessor.recycleFailed();
+            }
+            if (!stopping) {
+                log.warn("Zygote for {} exited; spawning scripts until it is restarted", label);
+            }
+        }
+
+        // Same pause as for restarts, so a replacement that cannot preload is not retried on every call
+        private void recycleFailed() {
+            recycleNotBefore = System.currentTimeMillis() + restartDelayMillis;
+            recycling.set(false);
+        }
+
+        private void takeOver(Zygote predecessor) {
+            if (zygotes.replace(name, predecessor, this)) {
+                predecessor.stop();
+            } else {
+                // A new version or a restart got there first
+                stop();
+            }
+        }
+
+        private ModelProcess fork(File inputFile) throws IOException {
+            SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                channel.connect(UnixDomainSocketAddress.of(socket));
+                ByteBuffer request = StandardCharsets.UTF_8.encode(inputFile.getAbsolutePath() + "\n");
+                while (request.hasRemaining()) {
+                    channel.write(request);
+                }
+                return new ModelProcess(channel, callTimeoutSeconds, watchdog);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        // SIGTERM: the zygote stops accepting and exits once its in-flight children finish
+        private void stop() {
+            stopping = true;
+            ready = false;
+            if (process != null) {
+                process.destroy();
+            }
+        }
+    }
+
+    /** A running model script, either spawned or forked by a zygote. */
+    public static final class ModelProcess implements AutoCloseable {
+
+        private final Process process;
+        private final SocketChannel channel;
+        private final BufferedReader output;
+        private final long timeoutSeconds;
+        private final long deadline;
+        private final ScheduledFuture<?> watchdog;
+        private volatile boolean timedOut;
+        private Integer exitCode;
+
+        private ModelProcess(Process process, long timeoutSeconds, ScheduledExecutorService watchdog) {
+            this.process = process;
+            this.channel = null;
+            this.output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            this.timeoutSeconds = timeoutSeconds;
+            this.deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            this.watchdog = watchdog.schedule(this::expire, timeoutSeconds, TimeUnit.SECONDS);
+        }
+
+        private ModelProcess(SocketChannel channel, long timeoutSeconds, ScheduledExecutorService watchdog) {
+            this.process = null;
+            this.channel = channel;
+            this.output = new ForkedOutput(Channels.newReader(channel, StandardCharsets.UTF_8));
+            this.timeoutSeconds = timeoutSeconds;
+            this.deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            this.watchdog = watchdog.schedule(this::expire, timeoutSeconds, TimeUnit.SECONDS);
+        }
+
+        // Unblocks a reader stuck on a hung script: a spawned one sees end of output once the
+        // process is killed, a forked one an error once the connection is closed
+        private void expire() {
+            timedOut = true;
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // closing anyway
+                }
+            }
+        }
+
+        private IOException timeout(Throwable cause) {
+            return new IOException("Model call timed out after " + timeoutSeconds + "s", cause);
+        }
+
+        /** stdout and stderr of the script, merged. */
+        public BufferedReader output() {
+            return output;
+        }
+
+        public int waitFor() throws IOException, InterruptedException {
+            if (process != null) {
+                if (!process.waitFor(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    expire();
+                }
+                if (timedOut) {
+                    throw timeout(null);
+                }
+                return process.exitValue();
+            }
+            // The exit status trails the script's output, so read whatever is left
+            while (output.readLine() != null) {
+                // discard
+            }
+            return exitCode;
+        }
+
+        // Also kills a spawned script the caller stopped reading, e.g. after an exception
+        @Override
+        public void close() throws IOException {
+            watchdog.cancel(false);
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        }
+
+        // Ends at the zygote's exit-status line, which is not part of the script's output
+        private final class ForkedOutput extends BufferedReader {
+
+            private ForkedOutput(Reader in) {
+                super(in);
+            }
+
+            @Override
+            public String readLine() throws IOException {
+                if (exitCode != null) {
+                    return null;
+                }
+                String line;
+                try {
+                    line = super.readLine();
+                } catch (IOException e) {
+                    throw timedOut ? timeout(e) : e;
+                }
+                if (line == null) {
+                    // Zygote died before it could report the child's status
+                    exitCode = -1;
+                    return null;
+                }
+                if (line.startsWith(EXIT_PREFIX)) {
+                    exitCode = Integer.parseInt(line.substring(EXIT_PREFIX.length()).trim());
+                    return null;
+                }
+                return line;
+            }
+        }
+    }
+}
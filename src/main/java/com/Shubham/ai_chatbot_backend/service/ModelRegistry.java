@@ -0,0 +1,432 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Single source of truth for where each model lives and which version is live.
+ *
+ * The models directory is resolved once at startup. Every model (script + artifact)
+ * is copied into an immutable snapshot directory named after its content hash, and
+ * callers run against a leased snapshot rather than the live directory, so a model
+ * file being replaced can never be read half-written. A WatchService picks up
+ * changes, builds the new snapshot off the request path and swaps it in atomically;
+ * the old snapshot is deleted once the last in-flight call holding it has finished.
+ * When the models only exist inside the packaged jar they are extracted once by
+ * ModelExtractor and served from there as-is.
+ */
+@Component
+public class ModelRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelRegistry.class);
+
+    public static final String SALARY = "salary";
+    public static final String SENTIMENT = "sentiment";
+    public static final String WEATHER = "weather";
+    public static final String CAR = "car";
+    public static final String CAR_INT8 = "car-int8";
+
+    private static final List<ModelSpec> MODELS = List.of(
+            new ModelSpec(SALARY, "ml_salary_predictor.py", "salary_predictor_single.pkl", false),
+            new ModelSpec(SENTIMENT, "sentiment_predictor.py", "sentiment_model.pkl", false),
+            new ModelSpec(WEATHER, "weather_predictor.py", "weather_model.pkl", false),
+            new ModelSpec(CAR, "car_recognition.py", "car_model.h5", false),
+            // Built by the car-model Maven profile; deployments without it serve float32
+            new ModelSpec(CAR_INT8, "car_recognition.py", "car_model_int8.tflite", true)
+    );
+
+    @Value("${model.dir:src/main/resources/models}")
+    private String modelDir;
+
+    @Value("${model.cache-dir:${java.io.tmpdir}/ai-chatbot-model-cache}")
+    private String modelCacheDir;
+
+    @Value("${model.reload.enabled:true}")
+    private boolean reloadEnabled;
+
+    @Value("${model.reload.debounce-ms:1000}")
+    private long debounceMillis;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicReference<ModelVersion>> live = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> pendingReloads = new ConcurrentHashMap<>();
+
+    private Path sourceDir;
+    // Extracted from the jar: content-addressed already and never changes while we run
+    private boolean extracted;
+    private Path snapshotRoot;
+    private ScheduledExecutorService reloader;
+    private WatchService watchService;
+
+    public record ModelSpec(String name, String script, String artifact, boolean optional) {
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        this.sourceDir = resolveModelsDirectory();
+        // Per-process, so two instances on one host never delete each other's snapshots
+        this.snapshotRoot = Files.createTempDirectory("ai-chatbot-models");
+
+        for (ModelSpec spec : MODELS) {
+            AtomicReference<ModelVersion> ref = new AtomicReference<>();
+            live.put(spec.name(), ref);
+            Gauge.builder("model.version", ref, r -> r.get() == null ? Double.NaN : r.get().version())
+                    .description("Version number of the live model snapshot")
+                    .tag("model", spec.name())
+                    .register(meterRegistry);
+            if (sourceDir != null) {
+                reload(spec);
+            }
+        }
+
+        if (sourceDir == null) {
+            log.error("No models directory found (model.dir={}); model calls will fail", modelDir);
+            return;
+        }
+        log.info("Model registry serving {} from {}", live.keySet(), sourceDir);
+
+        if (reloadEnabled && !extracted) {
+            startWatching();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Closing model watch service failed: {}", e.getMessage());
+            }
+        }
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+        deleteRecursively(snapshotRoot);
+    }
+
+    /**
+     * Pins the live version of a model for the duration of one call, or returns null if
+     * the model is unavailable. Always close the lease, ideally with try-with-resources.
+     */
+    public Lease acquire(String name) {
+        AtomicReference<ModelVersion> ref = live.get(name);
+        if (ref == null) {
+            return null;
+        }
+        while (true) {
+            ModelVersion version = ref.get();
+            if (version == null) {
+                return null;
+            }
+            if (version.tryAcquire()) {
+                return new Lease(version);
+            }
+            // Lost a race with a swap; the reference already points at the replacement
+        }
+    }
+
+    public Path getModelsDirectory() {
+        return sourceDir;
+    }
+
+    // model.dir first, then the legacy locations the services used to probe per request, then the jar
+    private Path resolveModelsDirectory() {
+        List<Path> candidates = new ArrayList<>();
+        candidates.add(Path.of(modelDir));
+        candidates.add(Path.of("src/main/resources/models"));
+        candidates.add(Path.of("models"));
+        candidates.add(Path.of("target/classes/models"));
+
+        for (Path candidate : candidates) {
+            if (Files.isDirectory(candidate)) {
+                return candidate.toAbsolutePath().normalize();
+            }
+        }
+
+        // Exploded classpath (IDE runs); models inside a packaged jar are not on a real filesystem
+        java.net.URL resource = getClass().getClassLoader().getResource("models");
+        if (resource != null && "file".equals(resource.getProtocol())) {
+            try {
+                return Path.of(resource.toURI());
+            } catch (java.net.URISyntaxException e) {
+                log.warn("Ignoring models classpath entry {}: {}", resource, e.getMessage());
+            }
+        }
+
+        try {
+            Path extractedDir = ModelExtractor.extract(Path.of(modelCacheDir));
+            this.extracted = extractedDir != null;
+            return extractedDir;
+        } catch (IOException e) {
+            log.error("Failed to extract bundled models to {}", modelCacheDir, e);
+            return null;
+        }
+    }
+
+    private void startWatching() throws IOException {
+        this.reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "model-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchService = sourceDir.getFileSystem().newWatchService();
+        sourceDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        Thread watcher = new Thread(this::watchLoop, "model-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        MODELS.forEach(this::scheduleReload);
+                        continue;
+                    }
+                    String fileName = event.context().toString();
+                    for (ModelSpec spec : MODELS) {
+                        if (spec.script().equals(fileName) || spec.artifact().equals(fileName)) {
+                            scheduleReload(spec);
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Models directory {} is no longer watchable; hot reload stopped", sourceDir);
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    // Copying a large model raises many MODIFY events; only act once the writes have gone quiet
+    private void scheduleReload(ModelSpec spec) {
+        pendingReloads.compute(spec.name(), (name, pending) -> {
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            return reloader.schedule(() -> reload(spec), debounceMillis, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void reload(ModelSpec spec) {
+        AtomicReference<ModelVersion> ref = live.get(spec.name());
+        ModelVersion current = ref.get();
+        Path staging = null;
+        try {
+            Path script = sourceDir.resolve(spec.script());
+            Path artifact = sourceDir.resolve(spec.artifact());
+            if (!Files.isRegularFile(script) || !Files.isRegularFile(artifact)) {
+                if (spec.optional() && current == null) {
+                    log.debug("Optional model {} not present in {}", spec.name(), sourceDir);
+                    return;
+                }
+                log.warn("Model {} incomplete in {} (need {} and {}); keeping {}", spec.name(), sourceDir,
+                        spec.script(), spec.artifact(), current == null ? "no version" : "v" + current.version());
+                return;
+            }
+
+            if (extracted) {
+                // Immutable and already content-addressed (by the jar entries), so neither a
+                // private snapshot nor a second pass over the bytes is needed
+                ref.set(new ModelVersion(spec, 1, sourceDir.getFileName().toString(), sourceDir));
+                log.info("Model {} v1 live from {}", spec.name(), sourceDir);
+                return;
+            }
+
+            // Hash the copy, not the source, so the recorded hash is exactly what workers will read
+            staging = Files.createTempDirectory(snapshotRoot, spec.name() + "-staging");
+            Files.copy(script, staging.resolve(spec.script()));
+            Files.copy(artifact, staging.resolve(spec.artifact()));
+            String hash = hash(staging.resolve(spec.script()), staging.resolve(spec.artifact()));
+
+            if (current != null && current.hash().equals(hash)) {
+                return;
+            }
+
+            Path snapshot = snapshotRoot.resolve(spec.name() + "-" + hash.substring(0, 16));
+            if (Files.exists(snapshot)) {
+                deleteRecursively(snapshot);
+            }
+            Files.move(staging, snapshot, StandardCopyOption.ATOMIC_MOVE);
+            staging = null;
+
+            int nextVersion = current == null ? 1 : current.version() + 1;
+            ModelVersion replacement = new ModelVersion(spec, nextVersion, hash, snapshot);
+            ModelVersion previous = ref.getAndSet(replacement);
+            if (previous != null) {
+                previous.retire();
+            }
+            log.info("Model {} v{} live (sha256 {})", spec.name(), nextVersion, hash.substring(0, 12));
+
+        } catch (IOException e) {
+            log.error("Failed to load model {}; keeping the current version", spec.name(), e);
+        } finally {
+            if (staging != null) {
+                deleteRecursively(staging);
+            }
+        }
+    }
+
+    private static String hash(Path... files) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        for (Path file : files) {
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                while (in.read(buffer) != -1) {
+                    // digesting as we read
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void deleteRecursively(Path root) {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not delete model snapshot {}: {}", root, e.getMessage());
+        }
+    }
+
+    /** One immutable, content-addressed copy of a model, reference-counted by in-flight calls. */
+    private static final class ModelVersion {
+
+        private final ModelSpec spec;
+        private final int version;
+        private final String hash;
+        private final Path directory;
+        private final AtomicInteger leases = new AtomicInteger();
+        private final AtomicBoolean deleted = new AtomicBoolean();
+        private volatile boolean retired;
+
+        private ModelVersion(ModelSpec spec, int version, String hash, Path directory) {
+            this.spec = spec;
+            this.version = version;
+            this.hash = hash;
+            this.directory = directory;
+        }
+
+        int version() {
+            return version;
+        }
+
+        String hash() {
+            return hash;
+        }
+
+        boolean tryAcquire() {
+            leases.incrementAndGet();
+            if (retired) {
+                release();
+                return false;
+            }
+            return true;
+        }
+
+        void release() {
+            if (leases.decrementAndGet() == 0 && retired) {
+                delete();
+            }
+        }
+
+        // Called once, after the replacement is live; new callers can no longer see this version
+        void retire() {
+            retired = true;
+            if (leases.get() == 0) {
+                delete();
+            }
+        }
+
+        private void delete() {
+            if (deleted.compareAndSet(false, true)) {
+                deleteRecursively(directory);
+                log.debug("Model {} v{} drained and removed", spec.name(), version);
+            }
+        }
+    }
+
+    /** A pinned model version; the snapshot stays on disk until every lease is closed. */
+    public static final class Lease implements AutoCloseable {
+
+        private final ModelVersion version;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(ModelVersion version) {
+            this.version = version;
+        }
+
+        public String name() {
+            return version.spec.name();
+        }
+
+        public Path directory() {
+            return version.directory;
+        }
+
+        public Path script() {
+            return version.directory.resolve(version.spec.script());
+        }
+
+        public Path artifact() {
+            return version.directory.resolve(version.spec.artifact());
+        }
+
+        public int version() {
+            return version.version;
+        }
+
+        public String hash() {
+            return version.hash;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                version.release();
+            }
+        }
+    }
+}
@@ -1,43 +1,112 @@
 package com.Shubham.ai_chatbot_backend.service;
 
+import com.Shubham.ai_chatbot_backend.dto.OpenAIStatusResponse;
+import com.Shubham.ai_chatbot_backend.exception.StreamCancelledException;
+import com.theokanning.openai.client.OpenAiApi;
 import com.theokanning.openai.service.OpenAiService;
+import com.theokanning.openai.completion.CompletionChoice;
 import com.theokanning.openai.completion.CompletionRequest;
+import com.theokanning.openai.completion.CompletionResult;
+import com.theokanning.openai.Usage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 public class OpenAIService {
 
+    private static final Logger log = LoggerFactory.getLogger(OpenAIService.class);
+
     @Value("${openai.api.key:}")
     private String apiKey;
 
+    // Overridable so load tests can point the client at a local stub
+    @Value("${openai.api.base-url:https://api.openai.com/}")
+    private String baseUrl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private OpenAiService openAiService;
 
+    private Counter customResponses;
+    private Counter openAiResponses;
+    private Timer openAiSuccess;
+    private Timer openAiFailure;
+    private DistributionSummary promptTokens;
+    private DistributionSummary completionTokens;
+
     @PostConstruct
     public void init() {
+        registerMetrics();
         initializeOpenAI();
     }
 
+    private void registerMetrics() {
+        this.customResponses = Counter.builder("chat.responses")
+                .description("Chat replies by source")
+                .tag("source", "custom")
+                .register(meterRegistry);
+        this.openAiResponses = Counter.builder("chat.responses")
+                .description("Chat replies by source")
+                .tag("source", "openai")
+                .register(meterRegistry);
+        this.openAiSuccess = Timer.builder("openai.request")
+                .description("OpenAI completion latency")
+                .tag("outcome", "success")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.openAiFailure = Timer.builder("openai.request")
+                .description("OpenAI completion latency")
+                .tag("outcome", "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.promptTokens = DistributionSummary.builder("openai.tokens")
+                .description("Tokens per OpenAI completion")
+                .baseUnit("tokens")
+                .tag("type", "prompt")
+                .register(meterRegistry);
+        this.completionTokens = DistributionSummary.builder("openai.tokens")
+                .description("Tokens per OpenAI completion")
+                .baseUnit("tokens")
+                .tag("type", "completion")
+                .register(meterRegistry);
+    }
+
     private void initializeOpenAI() {
-        System.out.println("🔑 Initializing OpenAI Service...");
+        log.info("Initializing OpenAI service");
 
         if (apiKey != null && !apiKey.isEmpty() && !apiKey.equals("your-test-key-here")) {
             try {
-                System.out.println("🔑 API Key length: " + apiKey.length());
+                log.debug("API key length: {}", apiKey.length());
 
-                this.openAiService = new OpenAiService(apiKey, Duration.ofSeconds(60));
-                System.out.println("✅ OpenAI Service initialized successfully");
+                OpenAiApi api = OpenAiService.defaultRetrofit(
+                                OpenAiService.defaultClient(apiKey, Duration.ofSeconds(60)),
+                                OpenAiService.defaultObjectMapper())
+                        .newBuilder()
+                        .baseUrl(baseUrl)
+                        .build()
+                        .create(OpenAiApi.class);
+                this.openAiService = new OpenAiService(api);
+                log.info("OpenAI service initialized");
 
             } catch (Exception e) {
-                System.out.println("❌ OpenAI initialization failed: " + e.getMessage());
+                log.error("OpenAI initialization failed", e);
                 throw new RuntimeException("OpenAI initialization failed", e);
             }
         } else {
-            System.out.println("❌ OpenAI API key not configured");
+            log.warn("OpenAI API key not configured");
             throw new RuntimeException("OpenAI API key not found in environment variables");
         }
     }
@@ -46,16 +115,50 @@ public class OpenAIService {
         // First, check if it's one of your custom questions
         String customResponse = getCustomResponse(userMessage);
         if (customResponse != null) {
-            System.out.println("✅ Using custom response");
+            log.debug("Using custom response");
+            customResponses.increment();
             return customResponse;
         }
 
         // Use OpenAI for all other questions
-        System.out.println("🚀 Using OpenAI API");
+        log.debug("Using OpenAI API");
+        openAiResponses.increment();
         return callOpenAI(userMessage);
     }
 
-    private String getCustomResponse(String userMessage) {
+    /**
+     * Same answer as generateResponse, but OpenAI text is handed to onDelta as it is
+     * generated; a custom response arrives as a single delta. Returns the full text.
+     * onDelta may throw StreamCancelledException to stop generating; it is rethrown as is.
+     */
+    public String streamResponse(String userMessage, Consumer<String> onDelta) {
+        String customResponse = getCustomResponse(userMessage);
+        if (customResponse != null) {
+            log.debug("Using custom response");
+            customResponses.increment();
+            onDelta.accept(customResponse);
+            return customResponse;
+        }
+
+        log.debug("Using OpenAI API (streaming)");
+        openAiResponses.increment();
+        return streamOpenAI(userMessage, onDelta);
+    }
+
+    // Where a reply came from, for the model field of chat responses
+    public String responseModel(String botResponse) {
+        if (botResponse.contains("Shubham") || botResponse.contains("portfolio") ||
+                botResponse.contains("Otago Polytechnic") || botResponse.contains("BIT")) {
+            return "Custom_Response_v1.0";
+        } else if (isOpenAIAvailable()) {
+            return "OpenAI_GPT-3.5";
+        } else {
+            return "Fallback_Response";
+        }
+    }
+
+    // Visible for benchmarks; not an entry point, callers go through generateResponse/streamResponse
+    String getCustomResponse(String userMessage) {
         String lower = userMessage.toLowerCase().trim();
 
         // === YOUR CUSTOM QUESTIONS & ANSWERS ===
@@ -100,31 +203,77 @@ public class OpenAIService {
         return null;
     }
 
+    private CompletionRequest completionRequest(String userMessage) {
+        // Simple, clean prompt - just answer the question directly
+        String prompt = "You are a helpful AI assistant. Answer the user's question directly and concisely.\n\n" +
+                "User: " + userMessage + "\n" +
+                "Assistant:";
+
+        return CompletionRequest.builder()
+                .model("gpt-3.5-turbo-instruct")
+                .prompt(prompt)
+                .maxTokens(300)
+                .temperature(0.7)
+                .build();
+    }
+
     private String callOpenAI(String userMessage) {
+        long start = System.nanoTime();
         try {
-            // Simple, clean prompt - just answer the question directly
-            String prompt = "You are a helpful AI assistant. Answer the user's question directly and concisely.\n\n" +
-                    "User: " + userMessage + "\n" +
-                    "Assistant:";
-
-            CompletionRequest completionRequest = CompletionRequest.builder()
-                    .model("gpt-3.5-turbo-instruct")
-                    .prompt(prompt)
-                    .maxTokens(300)
-                    .temperature(0.7)
-                    .build();
-
-            String response = openAiService.createCompletion(completionRequest)
-                    .getChoices()
-                    .get(0)
-                    .getText()
-                    .trim();
-
-            System.out.println("🤖 OpenAI Response: " + response);
+            CompletionResult completion = openAiService.createCompletion(completionRequest(userMessage));
+            openAiSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            Usage usage = completion.getUsage();
+            if (usage != null) {
+                promptTokens.record(usage.getPromptTokens());
+                completionTokens.record(usage.getCompletionTokens());
+            }
+
+            String response = completion.getChoices().get(0).getText().trim();
+
+            log.debug("OpenAI response length: {}", response.length());
             return response;
 
         } catch (Exception e) {
-            System.out.println("❌ OpenAI API call failed: " + e.getMessage());
+            openAiFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("OpenAI API call failed: {}", e.getMessage());
+            throw new RuntimeException("OpenAI API call failed: " + e.getMessage(), e);
+        }
+    }
+
+    private String streamOpenAI(String userMessage, Consumer<String> onDelta) {
+        long start = System.nanoTime();
+        try {
+            StringBuilder response = new StringBuilder();
+            // Blocks this thread until the stream ends; chunks arrive on it in order
+            openAiService.streamCompletion(completionRequest(userMessage)).blockingForEach(chunk -> {
+                for (CompletionChoice choice : chunk.getChoices()) {
+                    String text = choice.getText();
+                    if (text != null && !text.isEmpty()) {
+                        // The prompt ends at "Assistant:", so the first token usually starts with a space
+                        if (response.length() == 0) {
+                            text = text.stripLeading();
+                            if (text.isEmpty()) {
+                                continue;
+                            }
+                        }
+                        response.append(text);
+                        onDelta.accept(text);
+                    }
+                }
+            });
+            openAiSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            log.debug("OpenAI streamed response length: {}", response.length());
+            return response.toString().stripTrailing();
+
+        } catch (StreamCancelledException e) {
+            // The caller went away; not an OpenAI failure, so no failure sample or error log
+            log.debug("OpenAI stream cancelled: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            openAiFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("OpenAI streaming call failed: {}", e.getMessage());
             throw new RuntimeException("OpenAI API call failed: " + e.getMessage(), e);
         }
     }
@@ -133,11 +282,12 @@ public class OpenAIService {
         return openAiService != null;
     }
 
-    public Map<String, Object> getOpenAIStatus() {
-        Map<String, Object> status = new HashMap<>();
-        status.put("serviceAvailable", openAiService != null);
-        status.put("apiKeyPresent", apiKey != null && !apiKey.isEmpty() && !apiKey.equals("your-test-key-here"));
-        status.put("apiKeyLength", apiKey != null ? apiKey.length() : 0);
-        return status;
+    public OpenAIStatusResponse getOpenAIStatus() {
+        return new OpenAIStatusResponse(
+                openAiService != null,
+                apiKey != null && !apiKey.isEmpty() && !apiKey.equals("your-test-key-here"),
+                apiKey != null ? apiKey.length() : 0,
+                new Date().toString()
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt hashing on a dedicated, bounded executor.
+ *
+ * Hashing is deliberately slow CPU work, so it runs on at most one thread per core
+ * instead of on Tomcat threads, and the queue is bounded so a login storm gets a
+ * fast "busy" answer instead of unbounded latency. The cost factor is calibrated
+ * once at startup so one hash takes roughly password.hashing.target-ms on this host.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 14;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${password.hashing.target-ms:100}")
+    private long targetMillis;
+
+    @Value("${password.hashing.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${password.hashing.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    private ThreadPoolExecutor executor;
+    private BCryptPasswordEncoder encoder;
+    private String dummyHash;
+    private int strength;
+
+    @PostConstruct
+    public void init() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Pool size, active threads and queue depth; gauges only, nothing on the submit path
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(meterRegistry);
+
+        this.strength = calibrateStrength();
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.dummyHash = encoder.encode("dummy-password-for-timing");
+        log.info("Password hashing: BCrypt strength {} on {} threads", strength, threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Each strength step doubles the cost; stop at the last one that still fits the target
+    private int calibrateStrength() {
+        int chosen = MIN_STRENGTH;
+        long elapsedMillis = timeHash(MIN_STRENGTH);
+
+        while (chosen < MAX_STRENGTH && elapsedMillis * 2 <= targetMillis) {
+            chosen++;
+            elapsedMillis = timeHash(chosen);
+        }
+        return chosen;
+    }
+
+    private long timeHash(int candidateStrength) {
+        BCryptPasswordEncoder candidate = new BCryptPasswordEncoder(candidateStrength);
+        candidate.encode("calibration-warmup");
+        long start = System.nanoTime();
+        candidate.encode("calibration-password");
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    public String hash(String rawPassword) {
+        return await(executor.submit(() -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * Checks a password against a stored value. Rows created before hashing was
+     * introduced still hold plaintext; those are compared in constant time.
+     */
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (rawPassword == null) {
+            return false;
+        }
+        if (storedPassword == null) {
+            // Unknown user - burn the same CPU so response time doesn't reveal which emails exist
+            await(executor.submit(() -> encoder.matches(rawPassword, dummyHash)));
+            return false;
+        }
+        if (!isHashed(storedPassword)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return await(executor.submit(() -> encoder.matches(rawPassword, storedPassword)));
+    }
+
+    // True for legacy plaintext rows and for hashes below the calibrated strength
+    public boolean needsRehash(String storedPassword) {
+        return !isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    private boolean isHashed(String storedPassword) {
+        return storedPassword.startsWith("$2a$") || storedPassword.startsWith("$2b$") || storedPassword.startsWith("$2y$");
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RejectedExecutionException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Password hashing interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+}
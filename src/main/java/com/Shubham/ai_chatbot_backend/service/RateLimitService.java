@@ -0,0 +1,117 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.config.RateLimitProperties;
+import com.Shubham.ai_chatbot_backend.exception.RateLimitExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory token-bucket rate limiter keyed by (user ID, endpoint).
+ *
+ * Each key owns its own bucket, so concurrent requests only contend when they
+ * hit the same user and endpoint. A check is a map lookup plus a short
+ * synchronized refill - no I/O and no database access.
+ *
+ * Buckets live in a Caffeine cache capped at ratelimit.max-buckets. An idle bucket
+ * expires once it would have refilled completely, so dropping it changes nothing for
+ * that user; the size cap only matters when more keys are active than it allows.
+ */
+@Service
+public class RateLimitService {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    private Cache<BucketKey, TokenBucket> buckets;
+
+    private record BucketKey(Long userId, String endpoint) {
+    }
+
+    @PostConstruct
+    public void init() {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfter(new Expiry<BucketKey, TokenBucket>() {
+                    @Override
+                    public long expireAfterCreate(BucketKey key, TokenBucket bucket, long currentTime) {
+                        return bucket.fullRefillNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(BucketKey key, TokenBucket bucket, long currentTime, long currentDuration) {
+                        return bucket.fullRefillNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(BucketKey key, TokenBucket bucket, long currentTime, long currentDuration) {
+                        return bucket.fullRefillNanos();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Consumes one token for the given user on the given endpoint.
+     *
+     * @throws RateLimitExceededException when the bucket is empty
+     */
+    public void checkLimit(Long userId, String endpoint) {
+        if (!properties.isEnabled() || userId == null) {
+            return;
+        }
+
+        RateLimitProperties.Limit limit = properties.limitFor(endpoint);
+        TokenBucket bucket = buckets.get(new BucketKey(userId, endpoint),
+                k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerMinute()));
+
+        long waitNanos = bucket.tryConsume(System.nanoTime());
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            throw new RateLimitExceededException(endpoint, retryAfterSeconds);
+        }
+    }
+
+    static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(int capacity, int refillPerMinute) {
+            this.capacity = Math.max(1, capacity);
+            this.tokensPerNano = (double) Math.max(1, refillPerMinute) / NANOS_PER_MINUTE;
+            this.tokens = this.capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        // Returns 0 if a token was taken, otherwise the nanoseconds until one is available
+        synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return 0;
+            }
+            return (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+        }
+
+        // Time for an empty bucket to fill up: after that long idle it is the same as a new one
+        long fullRefillNanos() {
+            return (long) Math.ceil(capacity / tokensPerNano);
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                lastRefillNanos = now;
+            }
+        }
+    }
+}
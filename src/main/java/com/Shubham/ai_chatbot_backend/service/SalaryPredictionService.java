@@ -1,6 +1,11 @@
 package com.Shubham.ai_chatbot_backend.service;
 
-import com.google.gson.Gson;
+import com.Shubham.ai_chatbot_backend.dto.SalaryPrediction;
+import com.Shubham.ai_chatbot_backend.dto.SalaryPredictionRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.*;
 import java.io.*;
@@ -8,82 +13,77 @@ import java.io.*;
 @Service
 public class SalaryPredictionService {
 
-    private final Gson gson = new Gson();
+    private static final Logger log = LoggerFactory.getLogger(SalaryPredictionService.class);
 
-    public Map<String, Object> predictSalaryWithML(int experience, String jobTitle, String location,
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InferenceMetrics inferenceMetrics;
+
+    @Autowired
+    private ModelRegistry modelRegistry;
+
+    @Autowired
+    private ModelProcessLauncher modelProcessLauncher;
+
+    public SalaryPrediction predictSalaryWithML(int experience, String jobTitle, String location,
                                                    String educationLevel, List<String> skills) {
 
         try {
-            Map<String, Object> mlResult = callPythonMLModel(experience, jobTitle, location, educationLevel, skills);
+            SalaryPrediction mlResult = callPythonMLModel(experience, jobTitle, location, educationLevel, skills);
 
             // Enhanced ML result validation
             if (isValidMLResult(mlResult)) {
-                System.out.println("🤖 Using ML model prediction");
-                System.out.println("✅ ML Result - Local: " + mlResult.get("salary") + " " + mlResult.get("currency") +
-                        ", USD: " + mlResult.get("salaryUSD"));
+                log.debug("Using ML model prediction - local: {} {}, USD: {}",
+                        mlResult.salary(), mlResult.currency(), mlResult.salaryUSD());
                 return mlResult;
             } else {
-                System.out.println("🔄 ML model produced invalid result, using fallback");
-                System.out.println("📊 ML Result: " + mlResult);
+                log.warn("ML model produced invalid result, using fallback: {}", mlResult);
                 return fallbackSalaryPrediction(experience, jobTitle, location, educationLevel, skills);
             }
 
         } catch (Exception e) {
-            System.out.println("❌ ML integration error, using fallback: " + e.getMessage());
+            log.warn("ML integration error, using fallback", e);
             return fallbackSalaryPrediction(experience, jobTitle, location, educationLevel, skills);
         }
     }
 
-    private boolean isValidMLResult(Map<String, Object> mlResult) {
+    private boolean isValidMLResult(SalaryPrediction mlResult) {
         if (mlResult == null) {
-            System.out.println("❌ ML result is null");
+            log.warn("ML result is null");
             return false;
         }
 
-        if (mlResult.get("success") == null || !(boolean) mlResult.get("success")) {
-            System.out.println("❌ ML result indicates failure");
+        if (!Boolean.TRUE.equals(mlResult.success())) {
+            log.warn("ML result indicates failure");
             return false;
         }
 
         // Check for both salary and salaryUSD
-        Object salaryObj = mlResult.get("salary");
-        Object salaryUSDObj = mlResult.get("salaryUSD");
-        Object currencyObj = mlResult.get("currency");
+        Long salary = mlResult.salary();
+        Long salaryUSD = mlResult.salaryUSD();
+        String currency = mlResult.currency();
 
-        if (salaryObj == null || salaryUSDObj == null || currencyObj == null) {
-            System.out.println("❌ Salary values or currency are null");
+        if (salary == null || salaryUSD == null || currency == null) {
+            log.warn("Salary values or currency are null");
             return false;
         }
 
-        try {
-            double salary = ((Number) salaryObj).doubleValue();
-            double salaryUSD = ((Number) salaryUSDObj).doubleValue();
-            String currency = (String) currencyObj;
-
-            if (Double.isNaN(salary) || Double.isNaN(salaryUSD) ||
-                    Double.isInfinite(salary) || Double.isInfinite(salaryUSD) ||
-                    salary <= 0 || salaryUSD <= 0 || currency == null || currency.isEmpty()) {
-
-                System.out.println("❌ Invalid salary values - Salary: " + salary + ", USD: " + salaryUSD + ", Currency: " + currency);
-                return false;
-            }
-
-            System.out.println("✅ Valid ML result - Local: " + salary + " " + currency + ", USD: " + salaryUSD);
-            return true;
-
-        } catch (ClassCastException e) {
-            System.out.println("❌ Salary values are not numbers: " + e.getMessage());
-            return false;
-        } catch (Exception e) {
-            System.out.println("❌ Error validating ML result: " + e.getMessage());
+        if (salary <= 0 || salaryUSD <= 0 || currency.isEmpty()) {
+            log.warn("Invalid salary values - salary: {}, USD: {}, currency: {}", salary, salaryUSD, currency);
             return false;
         }
+
+        log.debug("Valid ML result - local: {} {}, USD: {}", salary, currency, salaryUSD);
+        return true;
     }
 
-    private Map<String, Object> fallbackSalaryPrediction(int experience, String jobTitle, String location,
-                                                         String educationLevel, List<String> skills) {
+    // Visible for benchmarks; not an entry point, callers go through predictSalaryWithML
+    SalaryPrediction fallbackSalaryPrediction(int experience, String jobTitle, String location,
+                                                 String educationLevel, List<String> skills) {
         try {
-            System.out.println("💰 Using intelligent fallback salary prediction");
+            log.debug("Using fallback salary prediction");
 
             // Base salary calculation with intelligent rules
             double baseSalary = calculateBaseSalary(jobTitle, location);
@@ -120,16 +120,6 @@ public class SalaryPredictionService {
             // Confidence based on input quality
             int confidence = calculateConfidence(experience, skills.size());
 
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-            result.put("salary", (int) predictedSalary);
-            result.put("salaryUSD", (int) salaryUSD);
-            result.put("currency", currency);
-            result.put("confidence", confidence);
-            result.put("model", "Intelligent_Fallback_v2.1");
-            result.put("ml_model_status", "fallback_used");
-            result.put("reason", "ML model produced invalid results");
-
             List<String> factors = new ArrayList<>();
             factors.add("Role: " + jobTitle);
             factors.add(experience + " years experience");
@@ -138,14 +128,25 @@ public class SalaryPredictionService {
             factors.add(skills.size() + " skills including: " + String.join(", ", skills.subList(0, Math.min(skills.size(), 3))));
             factors.add("Market-adjusted pricing");
 
-            result.put("factors", factors);
-            result.put("note", "Based on comprehensive market research and industry standards");
-
-            System.out.println("✅ Fallback prediction: " + predictedSalary + " " + currency + " (" + salaryUSD + " USD)");
+            SalaryPrediction result = new SalaryPrediction(
+                    true,
+                    (long) predictedSalary,
+                    (long) salaryUSD,
+                    currency,
+                    confidence,
+                    "Intelligent_Fallback_v2.1",
+                    "fallback_used",
+                    "ML model produced invalid results",
+                    factors,
+                    "Based on comprehensive market research and industry standards",
+                    null, null, null, null, null
+            );
+
+            log.debug("Fallback prediction: {} {} ({} USD)", predictedSalary, currency, salaryUSD);
             return result;
 
         } catch (Exception e) {
-            System.out.println("❌ Fallback salary prediction failed: " + e.getMessage());
+            log.error("Fallback salary prediction failed", e);
             return createErrorResponse("Salary prediction service temporarily unavailable. Please try different parameters.");
         }
     }
@@ -271,138 +272,76 @@ public class SalaryPredictionService {
         return Math.min(baseConfidence + expBonus + skillsBonus, 88);
     }
 
-    private Map<String, Object> createErrorResponse(String message) {
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("success", false);
-        errorResponse.put("error", "Service temporarily unavailable");
-        errorResponse.put("message", message);
-        errorResponse.put("suggestion", "Please try again with different parameters");
-        return errorResponse;
+    private SalaryPrediction createErrorResponse(String message) {
+        return SalaryPrediction.failure("Service temporarily unavailable", message,
+                "Please try again with different parameters");
     }
 
-    private Map<String, Object> callPythonMLModel(int experience, String jobTitle, String location,
-                                                  String educationLevel, List<String> skills) {
-        try {
-            Map<String, Object> inputData = new HashMap<>();
-            inputData.put("experience", experience);
-            inputData.put("role", jobTitle);
-            inputData.put("location", location);
-            inputData.put("education", educationLevel);
-            inputData.put("skills", skills);
+    private SalaryPrediction callPythonMLModel(int experience, String jobTitle, String location,
+                                               String educationLevel, List<String> skills) {
+        InferenceMetrics.Call call = inferenceMetrics.start("salary");
+        try (ModelRegistry.Lease model = modelRegistry.acquire(ModelRegistry.SALARY)) {
+            if (model == null) {
+                log.error("Salary model is not available");
+                return null;
+            }
 
-            String inputJson = gson.toJson(inputData);
+            String inputJson = objectMapper.writeValueAsString(
+                    new SalaryPredictionRequest(experience, jobTitle, location, educationLevel, skills));
 
             File tempFile = File.createTempFile("salary_input", ".json");
             try (FileWriter writer = new FileWriter(tempFile)) {
                 writer.write(inputJson);
             }
 
-            System.out.println("📁 Created temp file: " + tempFile.getAbsolutePath());
-
-            String modelsDir = getModelsDirectory();
-            String pythonScript = modelsDir + "/ml_salary_predictor.py";
+            log.debug("Created temp file: {}", tempFile);
+
+            log.debug("Python script path: {} (v{})", model.script(), model.version());
+
+            log.debug("Starting Python process");
+            try (ModelProcessLauncher.ModelProcess process = modelProcessLauncher.start(model, tempFile, Map.of())) {
+                BufferedReader reader = process.output();
+                String jsonOutput = null;
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    if (call.onOutputLine(line)) {
+                        continue;
+                    }
+                    log.debug("python: {}", line);
+                    // Look for lines that start with { (JSON)
+                    if (line.trim().startsWith("{")) {
+                        jsonOutput = line.trim();
+                        log.debug("Found JSON output: {}", jsonOutput);
+                    }
+                }
 
-            System.out.println("📁 Python script path: " + pythonScript);
+                int exitCode = process.waitFor();
+                log.debug("Python exit code: {}", exitCode);
 
-            // Check if Python script exists
-            File scriptFile = new File(pythonScript);
-            if (!scriptFile.exists()) {
-                System.out.println("❌ Python script not found: " + pythonScript);
+                // Clean up temp file
                 tempFile.delete();
-                return null;
-            }
 
-            ProcessBuilder processBuilder = new ProcessBuilder();
-            processBuilder.command("/opt/venv/bin/python", pythonScript, tempFile.getAbsolutePath());
-            processBuilder.directory(new File(modelsDir));
-            processBuilder.redirectErrorStream(true);
-
-            System.out.println("🐍 Starting Python process...");
-            Process process = processBuilder.start();
-
-            // Read output and look for JSON line
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-            String jsonOutput = null;
-            String line;
-
-            System.out.println("🐍 Python output:");
-            while ((line = reader.readLine()) != null) {
-                System.out.println("   " + line);
-                // Look for lines that start with { (JSON)
-                if (line.trim().startsWith("{")) {
-                    jsonOutput = line.trim();
-                    System.out.println("✅ Found JSON output: " + jsonOutput);
+                if (exitCode != 0 || jsonOutput == null) {
+                    log.warn("Python script failed with exit code: {}", exitCode);
+                    return null;
                 }
-            }
 
-            int exitCode = process.waitFor();
-            System.out.println("🐍 Python exit code: " + exitCode);
-
-            // Clean up temp file
-            tempFile.delete();
-
-            if (exitCode != 0 || jsonOutput == null) {
-                System.out.println("❌ Python script failed with exit code: " + exitCode);
-                return null;
-            }
-
-            try {
-                Map<String, Object> result = gson.fromJson(jsonOutput, Map.class);
-                System.out.println("✅ Successfully parsed Python response");
-                return result;
-            } catch (Exception e) {
-                System.out.println("❌ Failed to parse JSON: " + e.getMessage());
-                return null;
+                try {
+                    SalaryPrediction result = call.parse(jsonOutput, SalaryPrediction.class);
+                    log.debug("Parsed Python response");
+                    return result;
+                } catch (Exception e) {
+                    log.warn("Failed to parse JSON: {}", e.getMessage());
+                    return null;
+                }
             }
 
         } catch (Exception e) {
-            System.out.println("❌ Error calling Python ML model: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error calling Python ML model", e);
             return null;
+        } finally {
+            call.finish();
         }
     }
-
-    private String getModelsDirectory() {
-        try {
-            // Try multiple approaches to find the models directory
-
-            // Approach 1: Check if running from IDE (development)
-            File devModelsDir = new File("src/main/resources/models");
-            if (devModelsDir.exists()) {
-                System.out.println("📁 Found models in: " + devModelsDir.getAbsolutePath());
-                return devModelsDir.getAbsolutePath();
-            }
-
-            // Approach 2: Check if running from JAR (production)
-            ClassLoader classLoader = getClass().getClassLoader();
-            java.net.URL resource = classLoader.getResource("models");
-            if (resource != null) {
-                String jarPath = new File(resource.toURI()).getAbsolutePath();
-                System.out.println("📁 Found models in JAR: " + jarPath);
-                return jarPath;
-            }
-
-            // Approach 3: Current directory
-            File currentDir = new File("models");
-            if (currentDir.exists()) {
-                System.out.println("📁 Found models in current directory: " + currentDir.getAbsolutePath());
-                return currentDir.getAbsolutePath();
-            }
-
-            // Approach 4: Check target directory (Maven build)
-            File targetModelsDir = new File("target/classes/models");
-            if (targetModelsDir.exists()) {
-                System.out.println("📁 Found models in target: " + targetModelsDir.getAbsolutePath());
-                return targetModelsDir.getAbsolutePath();
-            }
-
-        } catch (Exception e) {
-            System.out.println("❌ Error finding models directory: " + e.getMessage());
-        }
-
-        // Last resort
-        String fallbackPath = new File(".").getAbsolutePath();
-        System.out.println("⚠️ Using fallback path: " + fallbackPath);
-        return fallbackPath;
-    }
-}
\ No newline at end of file
+}
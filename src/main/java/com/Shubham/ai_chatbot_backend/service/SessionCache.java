@@ -0,0 +1,88 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.model.SessionInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Near-cache of session token -> (userId, username, expiresAt) in front of SessionRepository.
+ *
+ * Entries never outlive the session itself, and are capped at a max TTL so a
+ * session deleted by another instance is only honoured here for a short while.
+ */
+@Component
+public class SessionCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${session.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${session.cache.max-ttl-seconds:300}")
+    private long maxTtlSeconds;
+
+    private Cache<String, SessionInfo> cache;
+
+    @PostConstruct
+    public void init() {
+        long maxTtlNanos = Duration.ofSeconds(maxTtlSeconds).toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, SessionInfo>() {
+                    @Override
+                    public long expireAfterCreate(String token, SessionInfo info, long currentTime) {
+                        long untilExpiry = Duration.between(LocalDateTime.now(), info.expiresAt()).toNanos();
+                        return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, SessionInfo info, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, info, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, SessionInfo info, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, evictions and size under cache="sessions"
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sessions");
+    }
+
+    public SessionInfo get(String sessionToken) {
+        SessionInfo info = cache.getIfPresent(sessionToken);
+        if (info != null && info.isExpired()) {
+            cache.invalidate(sessionToken);
+            return null;
+        }
+        return info;
+    }
+
+    public void put(String sessionToken, SessionInfo info) {
+        if (!info.isExpired()) {
+            cache.put(sessionToken, info);
+        }
+    }
+
+    public void invalidate(String sessionToken) {
+        cache.invalidate(sessionToken);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
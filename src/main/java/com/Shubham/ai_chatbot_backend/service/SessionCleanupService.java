@@ -0,0 +1,81 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.repository.SessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purges expired sessions in the background, off the login path.
+ *
+ * Each batch is its own short transaction so the job never locks large parts of
+ * the table, and it stops after max-batches so one run can't monopolise the pool.
+ */
+@Service
+public class SessionCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionCleanupService.class);
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${session.cleanup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${session.cleanup.max-batches:20}")
+    private int maxBatches;
+
+    private Counter purgedCounter;
+    private Timer purgeTimer;
+
+    @PostConstruct
+    public void init() {
+        this.purgedCounter = Counter.builder("sessions.purge.rows")
+                .description("Expired sessions deleted by the cleanup job")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("sessions.purge.duration")
+                .description("Time taken by one expired-session cleanup run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${session.cleanup.initial-delay-ms:60000}",
+            fixedDelayString = "${session.cleanup.interval-ms:600000}")
+    public void purgeExpiredSessions() {
+        long start = System.nanoTime();
+        int totalDeleted = 0;
+
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int deleted = sessionRepository.deleteExpiredSessionsBatch(batchSize);
+                totalDeleted += deleted;
+                if (deleted < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Session cleanup failed", e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            purgeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            purgedCounter.increment(totalDeleted);
+        }
+
+        if (totalDeleted > 0) {
+            log.atInfo().setMessage("Purged expired sessions")
+                    .addKeyValue("rows", totalDeleted)
+                    .addKeyValue("ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .log();
+        }
+    }
+}
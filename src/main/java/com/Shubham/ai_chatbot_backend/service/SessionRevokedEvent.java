@@ -0,0 +1,5 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+// Published after a logout so long-lived connections opened with the token can be closed
+public record SessionRevokedEvent(String sessionToken) {
+}
@@ -0,0 +1,154 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.model.SessionInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Stateless session tokens for session.mode=signed.
+ *
+ * Token format: base64url(userId:expiresEpochSeconds:username) + "." + base64url(HMAC-SHA256).
+ * Verification is pure CPU, so any instance holding the same secret can authenticate
+ * without the sessions table. Logouts go into a small in-memory revocation list that
+ * only keeps entries until the token would have expired anyway.
+ *
+ * The revocation list is per instance: behind a load balancer with several replicas, a
+ * logged-out token stays valid on the others until it expires.
+ */
+@Service
+public class SignedTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(SignedTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Value("${session.mode:database}")
+    private String sessionMode;
+
+    @Value("${session.signing-secret:}")
+    private String signingSecret;
+
+    private SecretKeySpec key;
+
+    // Mac instances are not thread-safe; one per request thread avoids re-initialising per call
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    // Revoked token MAC (hex of the decoded bytes) -> expiry (epoch seconds); each entry
+    // expires with its token, so logout never has to sweep the others
+    private final Cache<String, Long> revoked = Caffeine.newBuilder()
+            .expireAfter(Expiry.creating((String mac, Long expiresEpoch) ->
+                    Duration.ofSeconds(Math.max(0, expiresEpoch - Instant.now().getEpochSecond()))))
+            .build();
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        if (signingSecret == null || signingSecret.length() < 32) {
+            throw new RuntimeException("session.mode=signed requires session.signing-secret of at least 32 characters");
+        }
+        this.key = new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        log.info("Signed session tokens enabled");
+    }
+
+    public boolean isEnabled() {
+        return "signed".equalsIgnoreCase(sessionMode);
+    }
+
+    public String issue(Long userId, String username, LocalDateTime expiresAt) {
+        long expiresEpoch = expiresAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        String payload = userId + ":" + expiresEpoch + ":" + username;
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    // Returns the session carried by the token, or null if it is malformed, forged, expired or revoked
+    public SessionInfo verify(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+
+        try {
+            String encodedPayload = token.substring(0, dot);
+            String signature = token.substring(dot + 1);
+
+            byte[] mac = DECODER.decode(signature);
+            if (!MessageDigest.isEqual(sign(encodedPayload), mac)) {
+                return null;
+            }
+            // The decoder accepts padding and ignores spare low bits, so several strings carry
+            // the same MAC; only the one issue() produces is a valid token
+            if (!ENCODER.encodeToString(mac).equals(signature)) {
+                return null;
+            }
+            if (revoked.getIfPresent(HexFormat.of().formatHex(mac)) != null) {
+                return null;
+            }
+
+            String[] parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3) {
+                return null;
+            }
+
+            long expiresEpoch = Long.parseLong(parts[1]);
+            if (Instant.now().getEpochSecond() >= expiresEpoch) {
+                return null;
+            }
+
+            LocalDateTime expiresAt = LocalDateTime.ofInstant(Instant.ofEpochSecond(expiresEpoch), ZoneId.systemDefault());
+            return new SessionInfo(Long.parseLong(parts[0]), parts[2], expiresAt);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public boolean revoke(String token) {
+        SessionInfo info = verify(token);
+        if (info == null) {
+            return false;
+        }
+
+        byte[] mac = DECODER.decode(token.substring(token.indexOf('.') + 1));
+        revoked.put(HexFormat.of().formatHex(mac), info.expiresAt().atZone(ZoneId.systemDefault()).toEpochSecond());
+        return true;
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return macs.get().doFinal(encodedPayload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to initialise " + ALGORITHM, e);
+        }
+    }
+}
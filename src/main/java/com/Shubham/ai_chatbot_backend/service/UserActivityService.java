@@ -0,0 +1,199 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind user activity tracking (message count, last login, tool usage).
+ *
+ * Request threads only bump striped in-memory counters; a scheduled job drains
+ * them into Postgres with JDBC batch updates. Draining subtracts exactly what was
+ * read, so increments racing with a flush are carried over rather than lost.
+ * A user's entry is dropped after a flush interval with nothing to write; it is
+ * retired first, so an increment racing the removal retries on a fresh entry
+ * instead of landing on the removed one.
+ */
+@Service
+public class UserActivityService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserActivityService.class);
+
+    private static final String UPDATE_USER_SQL =
+            "UPDATE users SET message_count = message_count + ?, " +
+            "last_login = GREATEST(last_login, CAST(? AS timestamp)) WHERE id = ?";
+
+    private static final String UPSERT_TOOL_USAGE_SQL =
+            "INSERT INTO user_tool_usage (user_id, tool, usage_count) VALUES (?, ?, ?) " +
+            "ON CONFLICT (user_id, tool) DO UPDATE SET usage_count = user_tool_usage.usage_count + EXCLUDED.usage_count";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Long, Activity> pending = new ConcurrentHashMap<>();
+
+    public void recordMessage(Long userId) {
+        if (userId != null) {
+            record(userId, activity -> activity.messages.increment());
+        }
+    }
+
+    public void recordLogin(Long userId) {
+        if (userId != null) {
+            record(userId, activity -> activity.lastLogin.set(LocalDateTime.now()));
+        }
+    }
+
+    public void recordToolUsage(Long userId, String tool) {
+        if (userId != null) {
+            record(userId, activity -> activity.toolUsage.computeIfAbsent(tool, k -> new LongAdder()).increment());
+        }
+    }
+
+    private void record(Long userId, Consumer<Activity> update) {
+        while (true) {
+            Activity activity = pending.get(userId);
+            if (activity == null) {
+                activity = pending.computeIfAbsent(userId, k -> new Activity());
+            }
+            if (activity.enter()) {
+                try {
+                    update.accept(activity);
+                } finally {
+                    activity.exit();
+                }
+                return;
+            }
+            // Being removed by flush(); the next lookup sees it gone or reinstated
+            Thread.onSpinWait();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${activity.flush.interval-ms:30000}",
+            fixedDelayString = "${activity.flush.interval-ms:30000}")
+    @PreDestroy
+    public void flush() {
+        List<Object[]> userUpdates = new ArrayList<>();
+        List<Object[]> toolUpdates = new ArrayList<>();
+        List<Runnable> rollbacks = new ArrayList<>();
+
+        for (Map.Entry<Long, Activity> entry : pending.entrySet()) {
+            Long userId = entry.getKey();
+            Activity activity = entry.getValue();
+
+            long messages = activity.messages.sum();
+            activity.messages.add(-messages);
+            LocalDateTime lastLogin = activity.lastLogin.getAndSet(null);
+            boolean idle = messages == 0 && lastLogin == null;
+
+            if (messages > 0 || lastLogin != null) {
+                Timestamp loginTs = lastLogin != null ? Timestamp.valueOf(lastLogin) : null;
+                userUpdates.add(new Object[]{messages, loginTs, userId});
+                rollbacks.add(() -> {
+                    activity.messages.add(messages);
+                    if (lastLogin != null) {
+                        activity.lastLogin.compareAndSet(null, lastLogin);
+                    }
+                });
+            }
+
+            for (Map.Entry<String, LongAdder> tool : activity.toolUsage.entrySet()) {
+                LongAdder adder = tool.getValue();
+                long count = adder.sum();
+                if (count > 0) {
+                    adder.add(-count);
+                    toolUpdates.add(new Object[]{userId, tool.getKey(), count});
+                    rollbacks.add(() -> adder.add(count));
+                    idle = false;
+                }
+            }
+
+            // Nothing since the last flush: drop the entry rather than keep every user ever seen
+            if (idle && activity.retire()) {
+                pending.remove(userId, activity);
+            }
+        }
+
+        if (userUpdates.isEmpty() && toolUpdates.isEmpty()) {
+            return;
+        }
+
+        try {
+            // One transaction so a failed batch can be retried without double counting
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                if (!userUpdates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_USER_SQL, userUpdates);
+                }
+                if (!toolUpdates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT_TOOL_USAGE_SQL, toolUpdates);
+                }
+            });
+        } catch (Exception e) {
+            // Put the deltas back so the next flush retries them
+            log.warn("Activity flush failed, will retry: {}", e.getMessage());
+            rollbacks.forEach(Runnable::run);
+        }
+    }
+
+    private static final class Activity {
+        final LongAdder messages = new LongAdder();
+        final AtomicReference<LocalDateTime> lastLogin = new AtomicReference<>();
+        final ConcurrentHashMap<String, LongAdder> toolUsage = new ConcurrentHashMap<>();
+
+        // Recorders currently inside update(); retired once flush() has decided to remove the entry
+        private final AtomicInteger writers = new AtomicInteger();
+        private volatile boolean retired;
+
+        boolean enter() {
+            writers.incrementAndGet();
+            if (retired) {
+                writers.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        void exit() {
+            writers.decrementAndGet();
+        }
+
+        // A recorder either sees retired and retries, or is counted in writers and blocks the removal
+        boolean retire() {
+            retired = true;
+            if (writers.get() == 0 && isEmpty()) {
+                return true;
+            }
+            retired = false;
+            return false;
+        }
+
+        private boolean isEmpty() {
+            if (messages.sum() != 0 || lastLogin.get() != null) {
+                return false;
+            }
+            for (LongAdder adder : toolUsage.values()) {
+                if (adder.sum() != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,122 +1,270 @@
 package com.Shubham.ai_chatbot_backend.service;
 
+import com.Shubham.ai_chatbot_backend.dto.AuthResponse;
 import com.Shubham.ai_chatbot_backend.model.User;
 import com.Shubham.ai_chatbot_backend.model.Session;
+import com.Shubham.ai_chatbot_backend.model.SessionInfo;
+import com.Shubham.ai_chatbot_backend.model.UserListing;
+import com.Shubham.ai_chatbot_backend.model.UserSummary;
 import com.Shubham.ai_chatbot_backend.repository.UserRepository;
 import com.Shubham.ai_chatbot_backend.repository.SessionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;  // FIXED IMPORT
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private SessionRepository sessionRepository;
 
-    public Map<String, Object> registerUser(String username, String email, String password) {
-        Map<String, Object> response = new HashMap<>();
+    @Autowired
+    private SessionCache sessionCache;
 
-        if (userRepository.existsByEmail(email)) {
-            response.put("success", false);
-            response.put("message", "User with this email already exists");
-            return response;
-        }
+    @Autowired
+    private SignedTokenService signedTokenService;
 
-        if (userRepository.existsByUsername(username)) {
-            response.put("success", false);
-            response.put("message", "Username already taken");
-            return response;
-        }
+    @Autowired
+    private UserActivityService userActivityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
+    // sessions.validate, tagged by which layer answered
+    private Timer signedValidation;
+    private Timer cachedValidation;
+    private Timer databaseValidation;
+
+    @PostConstruct
+    public void init() {
+        this.signedValidation = validationTimer("signed");
+        this.cachedValidation = validationTimer("cache");
+        this.databaseValidation = validationTimer("database");
+    }
+
+    private Timer validationTimer(String source) {
+        return Timer.builder("sessions.validate")
+                .description("Session token validation latency")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // NOT_SUPPORTED: never hold a pooled connection while waiting on password hashing
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse registerUser(String username, String email, String password) {
         try {
-            User newUser = new User(username, email, password);
+            // Single insert - the unique constraints on email/username are the source of truth
+            User newUser = new User(username, email, passwordHashingService.hash(password));
             User savedUser = userRepository.save(newUser);
+            availabilityService.recordRegistration(username, email);
 
-            response.put("success", true);
-            response.put("message", "User registered successfully");
-            response.put("userId", savedUser.getId());
+            return AuthResponse.registered(savedUser.getId());
 
+        } catch (DataIntegrityViolationException e) {
+            // Only the failure path pays for working out which constraint fired
+            if (userRepository.existsByEmail(email)) {
+                return AuthResponse.failure("User with this email already exists");
+            }
+            if (userRepository.existsByUsername(username)) {
+                return AuthResponse.failure("Username already taken");
+            }
+            log.warn("Registration rejected by the database", e);
+            return AuthResponse.failure("Registration failed. Please check your details and try again.");
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", "Registration failed: " + e.getMessage());
+            log.error("Registration failed", e);
+            return AuthResponse.failure("Registration failed. Please try again later.");
         }
-
-        return response;
     }
 
-    public Map<String, Object> loginUser(String email, String password) {
-        Map<String, Object> response = new HashMap<>();
-
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthResponse loginUser(String email, String password) {
         try {
-            Optional<User> userOpt = userRepository.findByEmailAndPassword(email, password);
+            Optional<User> userOpt = userRepository.findByEmail(email);
+            String storedPassword = userOpt.map(User::getPassword).orElse(null);
 
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                user.setLastLogin(java.time.LocalDateTime.now());
-                userRepository.save(user);
+            if (!passwordHashingService.matches(password, storedPassword)) {
+                return AuthResponse.failure("Invalid email or password");
+            }
 
-                String sessionToken = UUID.randomUUID().toString();
-                Session session = new Session(sessionToken, user);
-                sessionRepository.save(session);
+            User user = userOpt.get();
+
+            // Transparently upgrade legacy plaintext rows and under-strength hashes
+            if (passwordHashingService.needsRehash(storedPassword)) {
+                userRepository.updatePassword(user.getId(), passwordHashingService.hash(password));
+            }
+
+            // lastLogin is written behind by UserActivityService, not on the login transaction
+            userActivityService.recordLogin(user.getId());
 
-                sessionRepository.deleteExpiredSessions();
-
-                response.put("success", true);
-                response.put("message", "Login successful");
-                response.put("sessionToken", sessionToken);
-                response.put("user", Map.of(
-                        "id", user.getId(),
-                        "username", user.getUsername(),
-                        "email", user.getEmail(),
-                        "avatar", user.getAvatar()
-                ));
+            String sessionToken;
+            if (signedTokenService.isEnabled()) {
+                // Stateless mode - nothing to persist, the token carries userId and expiry
+                sessionToken = signedTokenService.issue(user.getId(), user.getUsername(),
+                        java.time.LocalDateTime.now().plusHours(24));
             } else {
-                response.put("success", false);
-                response.put("message", "Invalid email or password");
+                sessionToken = UUID.randomUUID().toString();
+                Session session = new Session(sessionToken, user);
+                sessionRepository.save(session);
             }
 
+            return AuthResponse.loggedIn(sessionToken,
+                    new UserSummary(user.getId(), user.getUsername(), user.getEmail(), user.getAvatar()));
+
+        } catch (java.util.concurrent.RejectedExecutionException e) {
+            return AuthResponse.failure("Login service is busy. Please try again in a moment.");
         } catch (Exception e) {
-            response.put("success", false);
-            response.put("message", "Login failed: " + e.getMessage());
+            log.error("Login failed", e);
+            return AuthResponse.failure("Login failed. Please try again later.");
         }
-
-        return response;
     }
 
-    public boolean validateSession(String sessionToken) {
+    // Returns the session's user id/name if the token is valid and unexpired, otherwise null.
+    // SUPPORTS: a cache hit must not open a transaction (and check out a pooled connection)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public SessionInfo getValidSession(String sessionToken) {
+        if (sessionToken == null) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        if (signedTokenService.isEnabled()) {
+            SessionInfo info = signedTokenService.verify(sessionToken);
+            signedValidation.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return info;
+        }
+
+        SessionInfo cached = sessionCache.get(sessionToken);
+        if (cached != null) {
+            cachedValidation.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
         try {
-            Optional<Session> sessionOpt = sessionRepository.findBySessionToken(sessionToken);
-            return sessionOpt.isPresent() && !sessionOpt.get().isExpired();
+            Optional<SessionInfo> infoOpt = sessionRepository.findSessionInfoBySessionToken(sessionToken);
+            if (infoOpt.isEmpty() || infoOpt.get().isExpired()) {
+                return null;
+            }
+
+            sessionCache.put(sessionToken, infoOpt.get());
+            return infoOpt.get();
         } catch (Exception e) {
-            return false;
+            return null;
+        } finally {
+            databaseValidation.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
-    public User getUserFromSession(String sessionToken) {
+    // Public profile of the session's user, or null if the token is invalid or expired
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UserSummary getSessionUserSummary(String sessionToken) {
+        if (sessionToken == null) {
+            return null;
+        }
+
         try {
-            Optional<Session> sessionOpt = sessionRepository.findBySessionToken(sessionToken);
-            return sessionOpt.map(Session::getUser).orElse(null);
+            if (signedTokenService.isEnabled()) {
+                SessionInfo info = signedTokenService.verify(sessionToken);
+                return info == null ? null : userRepository.findSummaryById(info.userId()).orElse(null);
+            }
+            return sessionRepository.findUserSummaryBySessionToken(sessionToken).orElse(null);
         } catch (Exception e) {
             return null;
         }
     }
 
     public boolean logout(String sessionToken) {
+        if (signedTokenService.isEnabled()) {
+            boolean revoked = signedTokenService.revoke(sessionToken);
+            if (revoked) {
+                eventPublisher.publishEvent(new SessionRevokedEvent(sessionToken));
+            }
+            return revoked;
+        }
+
         try {
             sessionRepository.deleteBySessionToken(sessionToken);
-            return true;
         } catch (Exception e) {
             return false;
         }
+
+        // A validation racing this one can still read the row until the delete commits
+        // and re-cache it, so drop the entry again once the row is really gone
+        sessionCache.invalidate(sessionToken);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessionCache.invalidate(sessionToken);
+                }
+            });
+        }
+        eventPublisher.publishEvent(new SessionRevokedEvent(sessionToken));
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserListing> getUsersPage(long afterId, int size) {
+        return userRepository.findListingsAfter(afterId, Limit.of(size));
+    }
+
+    // Streams every user as a JSON array without materialising the whole table on the heap
+    @Transactional(readOnly = true)
+    public void writeAllUsers(OutputStream out) throws IOException {
+        // writeValue would otherwise flush the response after every row (FLUSH_AFTER_WRITE_VALUE)
+        ObjectWriter writer = objectMapper.writerFor(UserListing.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<UserListing> users = userRepository.streamAllListings();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (Iterator<UserListing> it = users.iterator(); it.hasNext(); ) {
+                writer.writeValue(generator, it.next());
+            }
+            generator.writeEndArray();
+            generator.flush();
+        }
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public long countUsers() {
+        return userRepository.count();
     }
 }
\ No newline at end of file
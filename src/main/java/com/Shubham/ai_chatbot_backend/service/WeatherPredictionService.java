@@ -1,6 +1,12 @@
 package com.Shubham.ai_chatbot_backend.service;
 
-import com.google.gson.Gson;
+import com.Shubham.ai_chatbot_backend.dto.WeatherModelInput;
+import com.Shubham.ai_chatbot_backend.dto.WeatherPrediction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.*;
 import java.io.*;
@@ -8,41 +14,52 @@ import java.io.*;
 @Service
 public class WeatherPredictionService {
 
-    private final Gson gson = new Gson();
+    private static final Logger log = LoggerFactory.getLogger(WeatherPredictionService.class);
 
-    public Map<String, Object> predictWeather(double temperature, double humidity,
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InferenceMetrics inferenceMetrics;
+
+    @Autowired
+    private ModelRegistry modelRegistry;
+
+    @Autowired
+    private ModelProcessLauncher modelProcessLauncher;
+
+    public WeatherPrediction predictWeather(double temperature, double humidity,
                                               double windSpeed, double pressure, double rainfall) {
 
         try {
             // Try to use Python ML model first
-            Map<String, Object> mlResult = callPythonWeatherModel(temperature, humidity, windSpeed, pressure, rainfall);
+            WeatherPrediction mlResult = callPythonWeatherModel(temperature, humidity, windSpeed, pressure, rainfall);
 
-            if (mlResult != null && mlResult.containsKey("success") && (boolean) mlResult.get("success")) {
-                System.out.println("Using ML weather model prediction");
+            if (mlResult != null && Boolean.TRUE.equals(mlResult.success())) {
+                log.debug("Using ML weather model prediction");
                 return mlResult;
             } else {
-                System.out.println("ML model failed, using enhanced fallback logic");
+                log.warn("ML weather model failed, using enhanced fallback logic");
                 return enhancedFallbackWeatherPrediction(temperature, humidity, windSpeed, pressure, rainfall);
             }
 
         } catch (Exception e) {
-            System.out.println("Weather ML integration error: " + e.getMessage());
+            log.warn("Weather ML integration error", e);
             return enhancedFallbackWeatherPrediction(temperature, humidity, windSpeed, pressure, rainfall);
         }
     }
 
-    private Map<String, Object> callPythonWeatherModel(double temperature, double humidity,
-                                                       double windSpeed, double pressure, double rainfall) {
-        try {
-            // Prepare input data for Python script
-            Map<String, Object> inputData = new HashMap<>();
-            inputData.put("temperature", temperature);
-            inputData.put("humidity", humidity);
-            inputData.put("wind_speed", windSpeed);
-            inputData.put("pressure", pressure);
-            inputData.put("rainfall", rainfall);
+    private WeatherPrediction callPythonWeatherModel(double temperature, double humidity,
+                                                     double windSpeed, double pressure, double rainfall) {
+        InferenceMetrics.Call call = inferenceMetrics.start("weather");
+        try (ModelRegistry.Lease model = modelRegistry.acquire(ModelRegistry.WEATHER)) {
+            if (model == null) {
+                return null;
+            }
 
-            String inputJson = gson.toJson(inputData);
+            // Prepare input data for Python script
+            String inputJson = objectMapper.writeValueAsString(
+                    new WeatherModelInput(temperature, humidity, windSpeed, pressure, rainfall));
 
             // Write JSON to a temporary file
             File tempFile = File.createTempFile("weather_input", ".json");
@@ -50,57 +67,42 @@ public class WeatherPredictionService {
                 writer.write(inputJson);
             }
 
-            String modelsDir = getModelsDirectory();
-            String pythonScript = modelsDir + "/weather_predictor.py";
+            // Execute Python script with UTF-8 encoding
+            try (ModelProcessLauncher.ModelProcess process = modelProcessLauncher.start(model, tempFile,
+                    Map.of("PYTHONIOENCODING", "utf-8"))) {
+                BufferedReader reader = process.output();
+                String jsonOutput = null;
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    call.onOutputLine(line);
+                    if (line.trim().startsWith("{")) {
+                        jsonOutput = line.trim();
+                        break;
+                    }
+                }
 
-            // Check if Python script exists
-            File scriptFile = new File(pythonScript);
-            if (!scriptFile.exists()) {
+                int exitCode = process.waitFor();
                 tempFile.delete();
-                return null;
-            }
 
-            // Execute Python script with UTF-8 encoding
-            ProcessBuilder processBuilder = new ProcessBuilder();
-            processBuilder.command("/opt/venv/bin/python", pythonScript, tempFile.getAbsolutePath());
-            processBuilder.directory(new File(modelsDir));
-            processBuilder.redirectErrorStream(true);
-
-            // Set UTF-8 environment for Python
-            Map<String, String> env = processBuilder.environment();
-            env.put("PYTHONIOENCODING", "utf-8");
-
-            Process process = processBuilder.start();
-
-            // Read output with UTF-8 encoding
-            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
-            String jsonOutput = null;
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().startsWith("{")) {
-                    jsonOutput = line.trim();
-                    break;
+                if (exitCode != 0 || jsonOutput == null) {
+                    return null;
                 }
-            }
-
-            int exitCode = process.waitFor();
-            tempFile.delete();
 
-            if (exitCode != 0 || jsonOutput == null) {
-                return null;
+                return call.parse(jsonOutput, WeatherPrediction.class);
             }
 
-            return gson.fromJson(jsonOutput, Map.class);
-
         } catch (Exception e) {
-            System.out.println("Error calling Python weather model: " + e.getMessage());
+            log.error("Error calling Python weather model", e);
             return null;
+        } finally {
+            call.finish();
         }
     }
 
-    private Map<String, Object> enhancedFallbackWeatherPrediction(double temperature, double humidity,
-                                                                  double windSpeed, double pressure, double rainfall) {
+    // Package-private so the JMH benchmarks can call it directly
+    WeatherPrediction enhancedFallbackWeatherPrediction(double temperature, double humidity,
+                                                        double windSpeed, double pressure, double rainfall) {
 
         Random random = new Random();
 
@@ -142,15 +144,6 @@ public class WeatherPredictionService {
         // Weather condition
         String weatherCondition = predictEnhancedWeatherCondition(predictedTemp, predictedRainfall, humidity, pressure);
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("success", true);
-        result.put("predictedTemperature", Math.round(predictedTemp * 10.0) / 10.0);
-        result.put("predictedRainfall", Math.round(predictedRainfall * 10.0) / 10.0);
-        result.put("weatherCondition", weatherCondition);
-        result.put("confidence", 70 + random.nextInt(20));
-        result.put("model", "Enhanced_Fallback_v2.0");
-        result.put("ml_model_status", "fallback_activated");
-
         List<String> factors = new ArrayList<>();
         factors.add("Current temperature: " + temperature + "C");
         factors.add("Humidity: " + humidity + "%");
@@ -161,10 +154,20 @@ public class WeatherPredictionService {
         factors.add("Enhanced rule-based algorithm");
         factors.add("Seasonal pattern analysis");
 
-        result.put("factors", factors);
-        result.put("location", "Auckland, NZ");
-
-        return result;
+        return new WeatherPrediction(
+                true,
+                Math.round(predictedTemp * 10.0) / 10.0,
+                Math.round(predictedRainfall * 10.0) / 10.0,
+                weatherCondition,
+                70 + random.nextInt(20),
+                "Enhanced_Fallback_v2.0",
+                null,
+                "fallback_activated",
+                factors,
+                "Auckland, NZ",
+                null,
+                null
+        );
     }
 
     private String predictEnhancedWeatherCondition(double temp, double rainfall, double humidity, double pressure) {
@@ -181,29 +184,4 @@ public class WeatherPredictionService {
         if (temp > 5) return "Cold";
         return "Very Cold";
     }
-
-    private String getModelsDirectory() {
-        try {
-            File devModelsDir = new File("src/main/resources/models");
-            if (devModelsDir.exists()) {
-                return devModelsDir.getAbsolutePath();
-            }
-
-            ClassLoader classLoader = getClass().getClassLoader();
-            java.net.URL resource = classLoader.getResource("models");
-            if (resource != null) {
-                return new File(resource.toURI()).getAbsolutePath();
-            }
-
-            File currentDir = new File("models");
-            if (currentDir.exists()) {
-                return currentDir.getAbsolutePath();
-            }
-
-        } catch (Exception e) {
-            System.out.println("Error finding models directory: " + e.getMessage());
-        }
-
-        return new File(".").getAbsolutePath();
-    }
-}
\ No newline at end of file
+}
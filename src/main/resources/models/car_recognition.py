@@ -1,80 +1,187 @@
-import tensorflow as tf
 import numpy as np
 from PIL import Image
 import json
 import sys
 import os
 import traceback
+import time
 
-def predict_car(image_path):
-    try:
-        print(f"Loading image from: {image_path}")
+# Phase timings reported to the backend on a 'TIMINGS {...}' line before the result
+TIMINGS = {}
 
-        # Check if image exists
-        if not os.path.exists(image_path):
-            return {"success": False, "error": f"Image file not found: {image_path}"}
+# Define car brands (update this list based on your model's training)
+CAR_BRANDS = ['BMW', 'Mercedes', 'Audi', 'Toyota', 'Honda', 'Ford']  # Example brands
+
+DEFAULT_TOP_K = 3
+
+# Artifact next to this script: car_model.h5 (float32 Keras) or car_model_int8.tflite (int8)
+MODEL_FILE = os.environ.get('CAR_MODEL_FILE', 'car_model.h5')
+
+# TFLite model bytes, read once per process (or once per zygote, see model_zygote.py)
+_model_content = None
 
-        # Get script directory
-        script_dir = os.path.dirname(os.path.abspath(__file__))
-        model_path = os.path.join(script_dir, 'car_model.h5')
+def load_input(input_data):
+    """Returns (array of shape (h, w, 3) scaled to 0..1, "WxH") or raises."""
+    if 'pixels_path' in input_data:
+        # Already decoded and downscaled by the backend: raw RGB bytes, row-major
+        width, height = input_data['width'], input_data['height']
+        pixels = np.fromfile(input_data['pixels_path'], dtype=np.uint8)
+        return pixels.reshape((height, width, 3)) / 255.0, f"{width}x{height}"
 
-        print(f"Model path: {model_path}")
-        print(f"Model exists: {os.path.exists(model_path)}")
+    img = Image.open(input_data['image_path'])
+    img = img.resize((150, 150))  # Adjust based on your model's expected input
+    img_array = np.array(img) / 255.0
 
-        if not os.path.exists(model_path):
-            return {"success": False, "error": f"Model file not found: {model_path}"}
+    # Handle different image formats
+    if len(img_array.shape) == 2:  # Grayscale
+        img_array = np.stack([img_array] * 3, axis=-1)
+    elif img_array.shape[2] == 4:  # RGBA
+        img_array = img_array[:, :, :3]
 
-        # Load model
+    return img_array, f"{img.size[0]}x{img.size[1]}"
+
+def load_model():
+    """Returns (predict function taking a float batch, None), or (None, error dict) if the model file is missing."""
+    # Get script directory
+    script_dir = os.path.dirname(os.path.abspath(__file__))
+    model_path = os.path.join(script_dir, MODEL_FILE)
+
+    print(f"Model path: {model_path}")
+    print(f"Model exists: {os.path.exists(model_path)}")
+
+    if not os.path.exists(model_path):
+        return None, {"success": False, "error": f"Model file not found: {model_path}"}
+
+    started = time.perf_counter()
+    if model_path.endswith('.tflite'):
+        print("Loading TFLite model...")
+        predict = load_tflite(model_path)
+    else:
+        # Imported here so the TFLite path never pays for the full TensorFlow import
         print("Loading TensorFlow model...")
+        import tensorflow as tf
         model = tf.keras.models.load_model(model_path)
-        print("Model loaded successfully")
+        predict = lambda batch: model.predict(batch, batch_size=len(batch))
+    TIMINGS['load_ms'] = round((time.perf_counter() - started) * 1000, 2)
+    print("Model loaded successfully")
+    return predict, None
 
-        # Define car brands (update this list based on your model's training)
-        car_brands = ['BMW', 'Mercedes', 'Audi', 'Toyota', 'Honda', 'Ford']  # Example brands
+def tflite_interpreter_class():
+    # Smallest runtime available first; full TensorFlow also ships the interpreter
+    try:
+        from ai_edge_litert.interpreter import Interpreter
+    except ImportError:
+        try:
+            from tflite_runtime.interpreter import Interpreter
+        except ImportError:
+            import tensorflow as tf
+            Interpreter = tf.lite.Interpreter
+    return Interpreter
 
-        # Load and prepare image
-        print("Processing image...")
-        img = Image.open(image_path)
-        img = img.resize((150, 150))  # Adjust based on your model's expected input
-        img_array = np.array(img) / 255.0
+def tflite_model_content(model_path):
+    global _model_content
+    if _model_content is None:
+        with open(model_path, 'rb') as f:
+            _model_content = f.read()
+    return _model_content
 
-        # Handle different image formats
-        if len(img_array.shape) == 2:  # Grayscale
-            img_array = np.stack([img_array] * 3, axis=-1)
-        elif img_array.shape[2] == 4:  # RGBA
-            img_array = img_array[:, :, :3]
+def load_tflite(model_path):
+    interpreter = tflite_interpreter_class()(model_content=tflite_model_content(model_path))
+    input_detail = interpreter.get_input_details()[0]
+    output_detail = interpreter.get_output_details()[0]
+    allocated = [None]
 
+    def predict(batch):
+        # Resizing reallocates every tensor, so only do it when the batch size changes
+        if allocated[0] != len(batch):
+            interpreter.resize_tensor_input(input_detail['index'], [len(batch)] + list(input_detail['shape'][1:]))
+            interpreter.allocate_tensors()
+            allocated[0] = len(batch)
+
+        scale, zero_point = input_detail['quantization']
+        if scale:
+            info = np.iinfo(input_detail['dtype'])
+            batch = np.clip(np.round(batch / scale + zero_point), info.min, info.max)
+        interpreter.set_tensor(input_detail['index'], batch.astype(input_detail['dtype']))
+        interpreter.invoke()
+
+        output = interpreter.get_tensor(output_detail['index'])
+        scale, zero_point = output_detail['quantization']
+        if scale:
+            output = (output.astype(np.float32) - zero_point) * scale
+        return output
+
+    return predict
+
+def preload():
+    """Called once by the zygote before it forks; children inherit whatever this loads."""
+    script_dir = os.path.dirname(os.path.abspath(__file__))
+    if MODEL_FILE.endswith('.tflite'):
+        # Interpreters start their thread pools on first use, so the model bytes and
+        # runtime are shared but each child builds its own interpreter from them
+        tflite_interpreter_class()
+        model_path = os.path.join(script_dir, MODEL_FILE)
+        if os.path.exists(model_path):
+            tflite_model_content(model_path)
+    else:
+        # A loaded Keras model does not survive fork (TensorFlow's runtime threads stay
+        # in the parent), so children share the import and load the weights themselves.
+        # That load is most of a float32 call, which is why car.model.variant=auto picks
+        # the int8 model whenever zygotes are on
+        import tensorflow  # noqa: F401
+
+def format_prediction(prediction, image_size, top_k):
+    top_index = np.argmax(prediction)
+    confidence = float(prediction[top_index]) * 100
+
+    # Get top k predictions
+    top_indices = np.argsort(prediction)[-top_k:][::-1]
+    top_predictions = []
+
+    for idx in top_indices:
+        if idx < len(CAR_BRANDS):
+            top_predictions.append({
+                "brand": CAR_BRANDS[idx],
+                "confidence": float(prediction[idx]) * 100
+            })
+
+    return {
+        "success": True,
+        "predicted_brand": CAR_BRANDS[top_index] if top_index < len(CAR_BRANDS) else "Unknown",
+        "confidence": confidence,
+        "all_predictions": top_predictions,
+        "model": "Car_Recognizer_v1.0" if MODEL_FILE.endswith('.h5') else "Car_Recognizer_v1.0-int8",
+        "image_size": image_size
+    }
+
+def predict_car(input_data):
+    try:
+        image_path = input_data.get('pixels_path') or input_data.get('image_path')
+        print(f"Loading image from: {image_path}")
+
+        # Check if image exists
+        if not image_path or not os.path.exists(image_path):
+            return {"success": False, "error": f"Image file not found: {image_path}"}
+
+        predict, error = load_model()
+        if error:
+            return error
+
+        # Load and prepare image
+        print("Processing image...")
+        img_array, image_size = load_input(input_data)
         img_array = np.expand_dims(img_array, axis=0)
 
         print(f"Image shape: {img_array.shape}")
 
         # Make prediction
         print("Making prediction...")
-        prediction = model.predict(img_array)[0]
-        top_index = np.argmax(prediction)
-        confidence = float(prediction[top_index]) * 100
-
-        # Get top 3 predictions
-        top_indices = np.argsort(prediction)[-3:][::-1]
-        top_predictions = []
-
-        for idx in top_indices:
-            if idx < len(car_brands):
-                top_predictions.append({
-                    "brand": car_brands[idx],
-                    "confidence": float(prediction[idx]) * 100
-                })
-
-        result = {
-            "success": True,
-            "predicted_brand": car_brands[top_index] if top_index < len(car_brands) else "Unknown",
-            "confidence": confidence,
-            "all_predictions": top_predictions,
-            "model": "Car_Recognizer_v1.0",
-            "image_size": f"{img.size[0]}x{img.size[1]}"
-        }
+        started = time.perf_counter()
+        prediction = predict(img_array)[0]
+        TIMINGS['inference_ms'] = round((time.perf_counter() - started) * 1000, 2)
 
-        print(f"Prediction successful: {result['predicted_brand']} ({confidence:.2f}%)")
+        result = format_prediction(prediction, image_size, int(input_data.get('top_k', DEFAULT_TOP_K)))
+        print(f"Prediction successful: {result['predicted_brand']} ({result['confidence']:.2f}%)")
         return result
 
     except Exception as e:
@@ -83,15 +190,55 @@ def predict_car(image_path):
         traceback.print_exc()
         return {"success": False, "error": error_msg}
 
-# Main execution
-if __name__ == "__main__":
+def predict_batch(input_data):
+    """All readable images go through the CNN as one tensor; unreadable ones get their own error."""
+    try:
+        images = input_data['images']
+        top_k = int(input_data.get('top_k', DEFAULT_TOP_K))
+        print(f"Batch of {len(images)} images, top {top_k}")
+
+        predict, error = load_model()
+        if error:
+            return error
+
+        results = [None] * len(images)
+        arrays, sizes, positions = [], [], []
+        for i, item in enumerate(images):
+            try:
+                img_array, image_size = load_input(item)
+                arrays.append(img_array)
+                sizes.append(image_size)
+                positions.append(i)
+            except Exception as e:
+                results[i] = {"success": False, "error": f"Could not read image: {str(e)}"}
+
+        if arrays:
+            batch = np.stack(arrays)
+            print(f"Batch shape: {batch.shape}")
+
+            started = time.perf_counter()
+            predictions = predict(batch)
+            TIMINGS['inference_ms'] = round((time.perf_counter() - started) * 1000, 2)
+
+            for position, prediction, image_size in zip(positions, predictions, sizes):
+                results[position] = format_prediction(prediction, image_size, top_k)
+
+        return {"success": True, "results": results}
+
+    except Exception as e:
+        error_msg = f"Batch prediction failed: {str(e)}"
+        print(f"ERROR: {error_msg}")
+        traceback.print_exc()
+        return {"success": False, "error": error_msg}
+
+def main(argv):
     try:
         print("Python car recognition script started")
-        print(f"Arguments: {sys.argv}")
+        print(f"Arguments: {argv}")
 
         # Read input from file
-        if len(sys.argv) > 1:
-            input_file = sys.argv[1]
+        if len(argv) > 1:
+            input_file = argv[1]
             print(f"Reading input from: {input_file}")
 
             with open(input_file, 'r') as f:
@@ -100,13 +247,14 @@ if __name__ == "__main__":
             print("ERROR: No input file provided")
             sys.exit(1)
 
-        image_path = input_data['image_path']
-        print(f"Processing image: {image_path}")
-
         # Make prediction
-        result = predict_car(image_path)
+        if 'images' in input_data:
+            result = predict_batch(input_data)
+        else:
+            result = predict_car(input_data)
 
         # Output result as JSON
+        print("TIMINGS " + json.dumps(TIMINGS))
         print(json.dumps(result))
 
     except Exception as e:
@@ -118,4 +266,8 @@ if __name__ == "__main__":
             "success": False,
             "error": error_msg
         }
-        print(json.dumps(error_result))
\ No newline at end of file
+        print(json.dumps(error_result))
+
+# Main execution
+if __name__ == "__main__":
+    main(sys.argv)
@@ -5,6 +5,29 @@ import pandas as pd
 import numpy as np
 import os
 import traceback
+import time
+
+# Phase timings reported to the backend on a 'TIMINGS {...}' line before the result
+TIMINGS = {}
+
+# Loaded once per process (or once per zygote, see model_zygote.py)
+_model_package = None
+
+def load_model_package(model_file):
+    global _model_package
+    if _model_package is None:
+        started = time.perf_counter()
+        with open(model_file, 'rb') as f:
+            _model_package = pickle.load(f)
+        TIMINGS['load_ms'] = round((time.perf_counter() - started) * 1000, 2)
+    return _model_package
+
+def preload():
+    """Called once by the zygote before it forks; children inherit the loaded model."""
+    script_dir = os.path.dirname(os.path.abspath(__file__))
+    model_file = os.path.join(script_dir, 'salary_predictor_single.pkl')
+    if os.path.exists(model_file):
+        load_model_package(model_file)
 
 def predict_salary(experience, job_title, location, education_level, skills_list):
     """
@@ -28,8 +51,7 @@ def predict_salary(experience, job_title, location, education_level, skills_list
             }
 
         # Load SINGLE model package
-        with open(model_file, 'rb') as f:
-            model_package = pickle.load(f)
+        model_package = load_model_package(model_file)
 
         print("Single model file loaded successfully")
 
@@ -73,7 +95,9 @@ def predict_salary(experience, job_title, location, education_level, skills_list
         features_scaled = scaler.transform([features])
 
         # Make prediction (USD)
+        started = time.perf_counter()
         predicted_salary_usd = model.predict(features_scaled)[0]
+        TIMINGS['inference_ms'] = round((time.perf_counter() - started) * 1000, 2)
 
         # Ensure prediction is reasonable
         if predicted_salary_usd <= 0 or np.isnan(predicted_salary_usd):
@@ -177,13 +201,13 @@ def calculate_fallback_salary(experience, job_title, location, education_level,
     print(f"Fallback calculation: {calculated_salary} USD")
     return max(30000, min(250000, calculated_salary))
 
-if __name__ == "__main__":
+def main(argv):
     try:
         print("Python script started successfully")
 
         # Read input from file (passed as command line argument)
-        if len(sys.argv) > 1:
-            input_file = sys.argv[1]
+        if len(argv) > 1:
+            input_file = argv[1]
             print(f"Reading input from file: {input_file}")
 
             with open(input_file, 'r') as f:
@@ -210,6 +234,7 @@ if __name__ == "__main__":
         result = predict_salary(experience, job_title, location, education_level, skills_list)
 
         # Output result as JSON - THIS MUST BE THE LAST LINE!
+        print("TIMINGS " + json.dumps(TIMINGS))
         print(json.dumps(result))
 
     except Exception as e:
@@ -222,4 +247,7 @@ if __name__ == "__main__":
             "success": False,
             "error": error_msg
         }
-        print(json.dumps(error_result))
\ No newline at end of file
+        print(json.dumps(error_result))
+
+if __name__ == "__main__":
+    main(sys.argv)
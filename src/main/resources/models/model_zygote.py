@@ -0,0 +1,170 @@
+"""
+Fork server ("zygote") for one model script.
+
+Imports the script once, lets it preload its libraries and model through an optional
+preload() hook, then forks a copy-on-write child per connection on a Unix socket. The
+backend sends the input file path as one line; the child runs the script's main() with
+its stdout and stderr on the connection, exactly what a freshly spawned script would
+print. Once the child has exited the zygote appends "ZYGOTE-EXIT <code>" and closes
+the connection, so a crashing input only ever takes down its own child.
+
+The zygote exits after its in-flight children on SIGTERM or when stdin closes (the
+backend went away). With a timeout, a child still running after that many seconds is
+killed by SIGALRM and reported as "ZYGOTE-EXIT -14".
+
+Usage: python model_zygote.py <script.py> <socket path> [timeout seconds]
+"""
+import gc
+import importlib.util
+import os
+import select
+import signal
+import socket
+import sys
+import traceback
+
+READY_LINE = "ZYGOTE READY"
+EXIT_PREFIX = "ZYGOTE-EXIT "
+
+
+def load_script(path):
+    # Same module search path as `python script.py`
+    sys.path.insert(0, os.path.dirname(path))
+    name = os.path.splitext(os.path.basename(path))[0]
+    spec = importlib.util.spec_from_file_location(name, path)
+    module = importlib.util.module_from_spec(spec)
+    sys.modules[name] = module
+    spec.loader.exec_module(module)
+    return module
+
+
+def run_child(module, script, conn, listener, others, timeout):
+    """Never returns: runs one request with stdout/stderr on the connection and exits."""
+    code = 0
+    try:
+        # Other requests' connections must close when their own child exits, not ours
+        listener.close()
+        for other in others:
+            other.close()
+        signal.set_wakeup_fd(-1)
+        signal.signal(signal.SIGCHLD, signal.SIG_DFL)
+        signal.signal(signal.SIGTERM, signal.SIG_DFL)
+        if timeout > 0:
+            signal.alarm(timeout)
+
+        with conn.makefile('r', encoding='utf-8') as request:
+            input_file = request.readline().strip()
+
+        os.dup2(conn.fileno(), 1)
+        os.dup2(conn.fileno(), 2)
+        conn.close()
+        sys.stdout = open(1, 'w', encoding='utf-8', buffering=1, closefd=False)
+        sys.stderr = open(2, 'w', encoding='utf-8', buffering=1, closefd=False)
+
+        # Timings from preload belong to the zygote; a child reports only its own work
+        if hasattr(module, 'TIMINGS'):
+            module.TIMINGS.clear()
+        module.main([script, input_file])
+    except SystemExit as e:
+        code = e.code if isinstance(e.code, int) else 1
+    except BaseException:
+        traceback.print_exc()
+        code = 1
+    finally:
+        try:
+            sys.stdout.flush()
+            sys.stderr.flush()
+        finally:
+            os._exit(code)
+
+
+def main():
+    if len(sys.argv) not in (3, 4):
+        print("Usage: python model_zygote.py <script.py> <socket path> [timeout seconds]")
+        sys.exit(2)
+    script, socket_path = os.path.abspath(sys.argv[1]), sys.argv[2]
+    timeout = int(sys.argv[3]) if len(sys.argv) == 4 else 0
+
+    module = load_script(script)
+    if hasattr(module, 'preload'):
+        module.preload()
+    # Keep the preloaded objects out of the collector so children don't dirty their pages
+    gc.freeze()
+
+    if os.path.exists(socket_path):
+        os.unlink(socket_path)
+    listener = socket.socket(socket.AF_UNIX, socket.SOCK_STREAM)
+    listener.bind(socket_path)
+    listener.listen(64)
+
+    # SIGCHLD and SIGTERM only wake the select loop; the work happens below
+    wake_read, wake_write = os.pipe()
+    os.set_blocking(wake_read, False)
+    os.set_blocking(wake_write, False)
+    signal.set_wakeup_fd(wake_write)
+    signal.signal(signal.SIGCHLD, lambda signum, frame: None)
+    stopping = []
+    signal.signal(signal.SIGTERM, lambda signum, frame: stopping.append(signum))
+
+    print(READY_LINE, flush=True)
+
+    children = {}
+    watched = [listener, sys.stdin, wake_read]
+    while not stopping or children:
+        readable, _, _ = select.select(watched, [], [])
+
+        if wake_read in readable:
+            while True:
+                try:
+                    if not os.read(wake_read, 64):
+                        break
+                except BlockingIOError:
+                    break
+            reap(children)
+
+        if sys.stdin in readable and not os.read(sys.stdin.fileno(), 1024):
+            stopping.append('stdin')
+
+        if stopping and listener in watched:
+            watched = [wake_read]
+            listener.close()
+            if os.path.exists(socket_path):
+                os.unlink(socket_path)
+            continue
+
+        if listener in readable:
+            conn, _ = listener.accept()
+            pid = os.fork()
+            if pid == 0:
+                run_child(module, script, conn, listener, list(children.values()), timeout)
+            # If it has already exited, its SIGCHLD byte is still waiting in the pipe
+            children[pid] = conn
+
+    if listener in watched:
+        listener.close()
+        if os.path.exists(socket_path):
+            os.unlink(socket_path)
+
+
+def reap(children):
+    while children:
+        try:
+            pid, status = os.waitpid(-1, os.WNOHANG)
+        except ChildProcessError:
+            return
+        if pid == 0:
+            return
+        conn = children.pop(pid, None)
+        if conn is None:
+            continue
+        try:
+            # Negative when the child was killed by a signal
+            conn.sendall(f"{EXIT_PREFIX}{os.waitstatus_to_exitcode(status)}\n".encode('utf-8'))
+        except OSError:
+            pass  # backend gave up on this request
+        finally:
+            conn.close()
+
+
+if __name__ == '__main__':
+    main()
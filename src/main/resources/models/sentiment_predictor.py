@@ -7,6 +7,45 @@ from nltk.corpus import stopwords
 from nltk.stem.porter import PorterStemmer
 import traceback
 import os
+import time
+
+# Phase timings reported to the backend on a 'TIMINGS {...}' line before the result
+TIMINGS = {}
+
+# Loaded once per process (or once per zygote, see model_zygote.py)
+_components = None
+_stopwords = None
+
+def load_components(model_path):
+    global _components
+    if _components is None:
+        started = time.perf_counter()
+        _components = joblib.load(model_path)
+        TIMINGS['load_ms'] = round((time.perf_counter() - started) * 1000, 2)
+    return _components
+
+def load_stopwords():
+    global _stopwords
+    if _stopwords is None:
+        # Download required NLTK data if not present
+        try:
+            nltk.data.find('corpora/stopwords')
+        except LookupError:
+            print("Downloading NLTK stopwords...")
+            nltk.download('stopwords', quiet=True)
+
+        all_stopwords = stopwords.words('english')
+        all_stopwords.remove('not')
+        _stopwords = set(all_stopwords)
+    return _stopwords
+
+def preload():
+    """Called once by the zygote before it forks; children inherit the loaded model."""
+    script_dir = os.path.dirname(os.path.abspath(__file__))
+    model_path = os.path.join(script_dir, 'sentiment_model.pkl')
+    if os.path.exists(model_path):
+        load_components(model_path)
+    load_stopwords()
 
 def predict_sentiment(text):
     """
@@ -29,7 +68,7 @@ def predict_sentiment(text):
 
         # Load model components
         print("Loading model components...")
-        components = joblib.load(model_path)
+        components = load_components(model_path)
         classifier = components['classifier']
         cv = components['count_vectorizer']
         le = components['label_encoder']
@@ -37,28 +76,21 @@ def predict_sentiment(text):
 
         print("Model loaded successfully")
 
-        # Download required NLTK data if not present
-        try:
-            nltk.data.find('corpora/stopwords')
-        except LookupError:
-            print("Downloading NLTK stopwords...")
-            nltk.download('stopwords', quiet=True)
-
         # Preprocess text (same as your training)
         review = re.sub('[^a-zA-Z]', ' ', text)
         review = review.lower()
         review = review.split()
 
         # Get stopwords
-        all_stopwords = stopwords.words('english')
-        all_stopwords.remove('not')
+        all_stopwords = load_stopwords()
 
-        review = [ps.stem(word) for word in review if not word in set(all_stopwords)]
+        review = [ps.stem(word) for word in review if not word in all_stopwords]
         review = ' '.join(review)
 
         print(f"Processed text: {review}")
 
         # Transform and predict
+        started = time.perf_counter()
         X_new = cv.transform([review]).toarray()
         prediction_encoded = classifier.predict(X_new)[0]
         sentiment = le.inverse_transform([prediction_encoded])[0]
@@ -66,6 +98,7 @@ def predict_sentiment(text):
         # Get confidence score
         probabilities = classifier.predict_proba(X_new)[0]
         confidence = max(probabilities) * 100
+        TIMINGS['inference_ms'] = round((time.perf_counter() - started) * 1000, 2)
 
         print(f"Prediction: {sentiment} (Confidence: {confidence:.2f}%)")
 
@@ -88,13 +121,13 @@ def predict_sentiment(text):
         traceback.print_exc()
         return {"success": False, "error": error_msg}
 
-if __name__ == "__main__":
+def main(argv):
     try:
         print("Python sentiment script started")
 
         # Read input from file (passed as command line argument)
-        if len(sys.argv) > 1:
-            input_file = sys.argv[1]
+        if len(argv) > 1:
+            input_file = argv[1]
             print(f"Reading input from file: {input_file}")
 
             with open(input_file, 'r') as f:
@@ -109,6 +142,7 @@ if __name__ == "__main__":
         result = predict_sentiment(text)
 
         # Output result as JSON - THIS MUST BE THE LAST LINE!
+        print("TIMINGS " + json.dumps(TIMINGS))
         print(json.dumps(result))
 
     except Exception as e:
@@ -120,4 +154,7 @@ if __name__ == "__main__":
             "success": False,
             "error": error_msg
         }
-        print(json.dumps(error_result))
\ No newline at end of file
+        print(json.dumps(error_result))
+
+if __name__ == "__main__":
+    main(sys.argv)
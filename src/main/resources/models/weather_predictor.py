@@ -4,6 +4,29 @@ import pickle
 import numpy as np
 import os
 import traceback
+import time
+
+# Phase timings reported to the backend on a 'TIMINGS {...}' line before the result
+TIMINGS = {}
+
+# Loaded once per process (or once per zygote, see model_zygote.py)
+_model_data = None
+
+def load_model_data(model_path):
+    global _model_data
+    if _model_data is None:
+        started = time.perf_counter()
+        with open(model_path, 'rb') as f:
+            _model_data = pickle.load(f)
+        TIMINGS['load_ms'] = round((time.perf_counter() - started) * 1000, 2)
+    return _model_data
+
+def preload():
+    """Called once by the zygote before it forks; children inherit the loaded model."""
+    script_dir = os.path.dirname(os.path.abspath(__file__))
+    model_path = os.path.join(script_dir, 'weather_model.pkl')
+    if os.path.exists(model_path):
+        load_model_data(model_path)
 
 def predict_weather_ml(temperature, humidity, wind_speed, pressure, rainfall):
     """
@@ -24,8 +47,7 @@ def predict_weather_ml(temperature, humidity, wind_speed, pressure, rainfall):
             print("ML model file found, attempting to load...")
             try:
                 # Try to load the ML model
-                with open(model_path, 'rb') as f:
-                    model_data = pickle.load(f)
+                model_data = load_model_data(model_path)
 
                 print("ML model loaded successfully")
 
@@ -38,6 +60,7 @@ def predict_weather_ml(temperature, humidity, wind_speed, pressure, rainfall):
                     input_features = [[temperature, humidity, wind_speed, pressure, rainfall]]
 
                     # Make prediction
+                    started = time.perf_counter()
                     predicted_temp = model.predict(input_features)[0]
                     predicted_temp = round(predicted_temp, 1)
 
@@ -50,6 +73,7 @@ def predict_weather_ml(temperature, humidity, wind_speed, pressure, rainfall):
                         predicted_rain = enhanced_rainfall_prediction(temperature, humidity, pressure, rainfall)
 
                     predicted_rain = max(0.0, round(predicted_rain, 1))
+                    TIMINGS['inference_ms'] = round((time.perf_counter() - started) * 1000, 2)
 
                     # Determine condition
                     condition = determine_weather_condition(predicted_temp, predicted_rain, humidity)
@@ -238,13 +262,13 @@ def determine_weather_condition(temperature, rainfall, humidity):
     else:
         return "Freezing"
 
-if __name__ == "__main__":
+def main(argv):
     try:
         print("Python weather script started successfully")
 
         # Read input from file (passed as command line argument)
-        if len(sys.argv) > 1:
-            input_file = sys.argv[1]
+        if len(argv) > 1:
+            input_file = argv[1]
             print(f"Reading input from file: {input_file}")
 
             with open(input_file, 'r') as f:
@@ -271,6 +295,7 @@ if __name__ == "__main__":
         result = predict_weather_ml(temperature, humidity, wind_speed, pressure, rainfall)
 
         # Output result as JSON - THIS MUST BE THE LAST LINE!
+        print("TIMINGS " + json.dumps(TIMINGS))
         print(json.dumps(result))
 
     except Exception as e:
@@ -290,4 +315,7 @@ if __name__ == "__main__":
             "source": "emergency",
             "error": error_msg
         }
-        print(json.dumps(basic_result))
\ No newline at end of file
+        print(json.dumps(basic_result))
+
+if __name__ == "__main__":
+    main(sys.argv)
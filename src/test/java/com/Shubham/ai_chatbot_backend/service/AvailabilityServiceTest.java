@@ -0,0 +1,95 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilityServiceTest {
+
+    private UserRepository userRepository;
+    private AvailabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        service = new AvailabilityService();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "expectedEntries", 1000);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+        service.init();
+    }
+
+    @Test
+    void filterIsSizedForExpectedEntriesAndRate() {
+        AvailabilityService.BloomFilter filter = new AvailabilityService.BloomFilter(100_000, 0.01);
+
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        assertThat((long) ReflectionTestUtils.getField(filter, "bitCount")).isEqualTo(958_506L);
+        assertThat((int) ReflectionTestUtils.getField(filter, "hashCount")).isEqualTo(7);
+    }
+
+    @Test
+    void filterHasNoFalseNegativesAndRoughlyTheConfiguredFalsePositiveRate() {
+        AvailabilityService.BloomFilter filter = new AvailabilityService.BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("user" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i))).isTrue();
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("other" + i)).count();
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.mightContain(null)).isFalse();
+    }
+
+    @Test
+    void everyCheckGoesToTheDatabaseUntilFiltersAreBuilt() {
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+
+        assertThat(service.isUsernameAvailable("alice")).isFalse();
+        assertThat(service.isUsernameAvailable("bob")).isTrue();
+        verify(userRepository).existsByUsername("bob");
+    }
+
+    @Test
+    void builtFiltersAnswerDefiniteMissesFromMemory() {
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.of("alice"));
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("alice@example.test"));
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+        service.buildFilters();
+
+        assertThat(service.isUsernameAvailable("bob")).isTrue();
+        verify(userRepository, never()).existsByUsername("bob");
+        assertThat(service.isUsernameAvailable("alice")).isFalse();
+        assertThat(service.isEmailAvailable("bob@example.test")).isTrue();
+    }
+
+    @Test
+    void registrationDuringStartupIsNotLost() {
+        // Registered after the username scan started but before it finished: not in the snapshot
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.of("alice").peek(name ->
+                service.recordRegistration("carol", "carol@example.test")));
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("alice@example.test"));
+        // And one before the build started (missing from the stubbed rows as well)
+        service.recordRegistration("dave", "dave@example.test");
+        when(userRepository.existsByUsername("carol")).thenReturn(true);
+        when(userRepository.existsByUsername("dave")).thenReturn(true);
+        when(userRepository.existsByEmail("carol@example.test")).thenReturn(true);
+
+        service.buildFilters();
+
+        assertThat(service.isUsernameAvailable("carol")).isFalse();
+        assertThat(service.isUsernameAvailable("dave")).isFalse();
+        assertThat(service.isEmailAvailable("carol@example.test")).isFalse();
+    }
+}
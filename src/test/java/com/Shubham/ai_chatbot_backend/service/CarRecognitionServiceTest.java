@@ -0,0 +1,142 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.dto.CarBatchResult;
+import com.Shubham.ai_chatbot_backend.dto.CarRecognitionResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CarRecognitionServiceTest {
+
+    private static final String SINGLE_RESULT = "{\"success\": true, \"predicted_brand\": \"BMW\", \"confidence\": 91.5}";
+
+    private ModelProcessLauncher modelProcessLauncher;
+    private CarImagePreprocessor carImagePreprocessor;
+    private CarRecognitionService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        InferenceMetrics inferenceMetrics = new InferenceMetrics();
+        ReflectionTestUtils.setField(inferenceMetrics, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(inferenceMetrics, "objectMapper", objectMapper);
+
+        ModelRegistry.Lease model = mock(ModelRegistry.Lease.class);
+        when(model.name()).thenReturn(ModelRegistry.CAR);
+        when(model.hash()).thenReturn("abc123");
+        when(model.artifact()).thenReturn(Path.of("car_model.h5"));
+        ModelRegistry modelRegistry = mock(ModelRegistry.class);
+        when(modelRegistry.acquire(ModelRegistry.CAR)).thenReturn(model);
+
+        modelProcessLauncher = mock(ModelProcessLauncher.class);
+        when(modelProcessLauncher.start(any(), any(), any())).thenAnswer(invocation -> process(SINGLE_RESULT));
+
+        carImagePreprocessor = spy(new CarImagePreprocessor());
+        ReflectionTestUtils.setField(carImagePreprocessor, "inputSize", 150);
+        ReflectionTestUtils.setField(carImagePreprocessor, "maxPixels", 50_000_000L);
+
+        service = new CarRecognitionService();
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "inferenceMetrics", inferenceMetrics);
+        ReflectionTestUtils.setField(service, "modelRegistry", modelRegistry);
+        ReflectionTestUtils.setField(service, "modelProcessLauncher", modelProcessLauncher);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "carImagePreprocessor", carImagePreprocessor);
+        ReflectionTestUtils.setField(service, "modelVariant", "float32");
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "cacheTtlMinutes", 60L);
+        ReflectionTestUtils.setField(service, "maxBatchImages", 16);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void repeatUploadIsAnsweredWithoutDecodingOrCallingTheModel() throws Exception {
+        byte[] photo = png(1);
+
+        CarRecognitionResult first = service.recognizeCar(upload(photo));
+        CarRecognitionResult repeat = service.recognizeCar(upload(photo));
+
+        assertThat(first.predictedBrand()).isEqualTo("BMW");
+        assertThat(repeat).isEqualTo(first);
+        verify(carImagePreprocessor, times(1)).downscale(any(InputStream.class));
+        verify(modelProcessLauncher, times(1)).start(any(), any(), any());
+    }
+
+    @Test
+    void differentContentIsNotServedFromTheCache() throws Exception {
+        service.recognizeCar(upload(png(1)));
+        service.recognizeCar(upload(png(2)));
+
+        verify(carImagePreprocessor, times(2)).downscale(any(InputStream.class));
+        verify(modelProcessLauncher, times(2)).start(any(), any(), any());
+    }
+
+    @Test
+    void batchOnlyDecodesAndSendsTheImagesNotSeenBefore() throws Exception {
+        byte[] seen = png(1);
+        service.recognizeCar(upload(seen));
+        when(modelProcessLauncher.start(any(), any(), any())).thenAnswer(invocation -> process(
+                "{\"success\": true, \"results\": [{\"success\": true, \"predicted_brand\": \"Audi\", \"confidence\": 80.0}]}"));
+
+        CarBatchResult batch = service.recognizeCars(List.of(upload(seen), upload(png(2))), 3);
+
+        assertThat(batch.results()).extracting(CarRecognitionResult::predictedBrand).containsExactly("BMW", "Audi");
+        verify(carImagePreprocessor, times(2)).downscale(any(InputStream.class));
+        verify(modelProcessLauncher, times(2)).start(any(), any(), any());
+    }
+
+    @Test
+    void formatImageIOCannotReadIsHandedToTheScriptAsIs() throws Exception {
+        CarRecognitionResult result = service.recognizeCar(upload("not a format ImageIO knows".getBytes()));
+
+        assertThat(result.predictedBrand()).isEqualTo("BMW");
+        verify(modelProcessLauncher, times(1)).start(any(), any(), any());
+    }
+
+    private static ModelProcessLauncher.ModelProcess process(String jsonLine) throws Exception {
+        ModelProcessLauncher.ModelProcess process = mock(ModelProcessLauncher.ModelProcess.class);
+        when(process.output()).thenReturn(new BufferedReader(new StringReader(jsonLine + "\n")));
+        when(process.waitFor()).thenReturn(0);
+        return process;
+    }
+
+    private static MockMultipartFile upload(byte[] bytes) {
+        return new MockMultipartFile("image", "car.png", "image/png", bytes);
+    }
+
+    private static byte[] png(int seed) throws IOException {
+        BufferedImage image = new BufferedImage(40, 30, BufferedImage.TYPE_3BYTE_BGR);
+        image.setRGB(seed, seed, 0xFFFFFF);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
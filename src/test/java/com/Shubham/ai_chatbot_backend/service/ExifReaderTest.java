@@ -0,0 +1,136 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExifReaderTest {
+
+    private static final byte[] THUMBNAIL = {(byte) 0xFF, (byte) 0xD8, 1, 2, 3, 4, (byte) 0xFF, (byte) 0xD9};
+
+    @Test
+    void readsOrientationAndThumbnailInEitherByteOrder() throws IOException {
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ExifReader.Exif exif = read(jpeg(app0(), app1(tiff(order, 6, 56, THUMBNAIL.length))));
+
+            assertThat(exif.orientation()).as(order.toString()).isEqualTo(6);
+            assertThat(exif.thumbnail()).as(order.toString()).isEqualTo(THUMBNAIL);
+        }
+    }
+
+    @Test
+    void stopsAtStartOfScanWithoutExif() throws IOException {
+        byte[] sos = {(byte) 0xFF, (byte) 0xDA, 0, 2};
+
+        assertThat(read(jpeg(app0(), sos, app1(tiff(ByteOrder.BIG_ENDIAN, 6, 56, THUMBNAIL.length)))))
+                .isEqualTo(ExifReader.Exif.NONE);
+        assertThat(read(new byte[]{(byte) 0x89, 'P', 'N', 'G'})).isEqualTo(ExifReader.Exif.NONE);
+    }
+
+    @Test
+    void ignoresApp1SegmentsThatAreNotExif() throws IOException {
+        byte[] xmp = segment(0xE1, "http://ns.adobe.com/xap/1.0/\0".getBytes(StandardCharsets.US_ASCII));
+
+        ExifReader.Exif exif = read(jpeg(xmp, app1(tiff(ByteOrder.BIG_ENDIAN, 3, 56, THUMBNAIL.length))));
+
+        assertThat(exif.orientation()).isEqualTo(3);
+    }
+
+    @Test
+    void thumbnailPointingPastTheSegmentIsDroppedButOrientationKept() throws IOException {
+        ExifReader.Exif pastEnd = read(jpeg(app1(tiff(ByteOrder.BIG_ENDIAN, 8, 56, 10_000))));
+        ExifReader.Exif overflow = read(jpeg(app1(tiff(ByteOrder.BIG_ENDIAN, 8, 56, Integer.MAX_VALUE))));
+        ExifReader.Exif negative = read(jpeg(app1(tiff(ByteOrder.BIG_ENDIAN, 8, -4, THUMBNAIL.length))));
+
+        for (ExifReader.Exif exif : new ExifReader.Exif[]{pastEnd, overflow, negative}) {
+            assertThat(exif.orientation()).isEqualTo(8);
+            assertThat(exif.thumbnail()).isNull();
+        }
+    }
+
+    @Test
+    void truncatedOrCorruptTiffIsTreatedAsAbsent() throws IOException {
+        byte[] tiff = tiff(ByteOrder.BIG_ENDIAN, 6, 56, THUMBNAIL.length);
+
+        // Cut inside IFD0, and a stream that ends in the middle of the APP1 segment
+        assertThat(read(jpeg(app1(Arrays.copyOf(tiff, 20))))).isEqualTo(ExifReader.Exif.NONE);
+        byte[] whole = jpeg(app1(tiff));
+        assertThat(read(Arrays.copyOf(whole, 30))).isEqualTo(ExifReader.Exif.NONE);
+
+        byte[] badOrder = tiff.clone();
+        badOrder[0] = 'X';
+        assertThat(read(jpeg(app1(badOrder)))).isEqualTo(ExifReader.Exif.NONE);
+
+        byte[] badMagic = tiff.clone();
+        badMagic[3] = 43;
+        assertThat(read(jpeg(app1(badMagic)))).isEqualTo(ExifReader.Exif.NONE);
+
+        byte[] wildIfd = tiff.clone();
+        ByteBuffer.wrap(wildIfd).putInt(4, 0xFFFFFFF0);
+        assertThat(read(jpeg(app1(wildIfd)))).isEqualTo(ExifReader.Exif.NONE);
+    }
+
+    @Test
+    void segmentLengthShorterThanItsOwnHeaderIsRejected() throws IOException {
+        byte[] bogus = {(byte) 0xFF, (byte) 0xE0, 0, 1};
+
+        assertThat(read(jpeg(bogus, app1(tiff(ByteOrder.BIG_ENDIAN, 6, 56, THUMBNAIL.length)))))
+                .isEqualTo(ExifReader.Exif.NONE);
+    }
+
+    private static ExifReader.Exif read(byte[] bytes) throws IOException {
+        return ExifReader.read(new ByteArrayInputStream(bytes));
+    }
+
+    // TIFF header, IFD0 with orientation linking to IFD1 at 26 with the thumbnail, which follows at 56
+    private static byte[] tiff(ByteOrder order, int orientation, int thumbnailOffset, int thumbnailLength) {
+        ByteBuffer tiff = ByteBuffer.allocate(56 + THUMBNAIL.length).order(order);
+        tiff.putShort(order == ByteOrder.BIG_ENDIAN ? (short) 0x4D4D : (short) 0x4949).putShort((short) 42).putInt(8);
+
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(26);
+
+        tiff.putShort((short) 2);
+        tiff.putShort((short) 0x0201).putShort((short) 4).putInt(1).putInt(thumbnailOffset);
+        tiff.putShort((short) 0x0202).putShort((short) 4).putInt(1).putInt(thumbnailLength);
+        tiff.putInt(0);
+
+        tiff.put(THUMBNAIL);
+        return tiff.array();
+    }
+
+    private static byte[] app0() {
+        return segment(0xE0, "JFIF\0\1\1\0\0\1\0\1\0\0".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] app1(byte[] tiff) {
+        byte[] header = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+        byte[] payload = Arrays.copyOf(header, header.length + tiff.length);
+        System.arraycopy(tiff, 0, payload, header.length, tiff.length);
+        return segment(0xE1, payload);
+    }
+
+    private static byte[] segment(int marker, byte[] payload) {
+        return ByteBuffer.allocate(4 + payload.length)
+                .put((byte) 0xFF).put((byte) marker).putShort((short) (payload.length + 2)).put(payload)
+                .array();
+    }
+
+    private static byte[] jpeg(byte[]... segments) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xD8});
+        for (byte[] segment : segments) {
+            out.writeBytes(segment);
+        }
+        out.writeBytes(new byte[]{(byte) 0xFF, (byte) 0xDA, 0, 2});
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,247 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Runs the real model_zygote.py against a tiny script, so it needs python3 on the PATH
+class ModelProcessLauncherTest {
+
+    private static final String SCRIPT = """
+            import os
+            import signal
+            import sys
+            import time
+
+            PRELOADS = []
+
+
+            def preload():
+                PRELOADS.append(os.getpid())
+
+
+            def main(argv):
+                with open(argv[1]) as f:
+                    command = f.read().strip()
+                print(f"preloaded={len(PRELOADS)}")
+                if command == "echo":
+                    print("out line")
+                    print("err line", file=sys.stderr)
+                    sys.exit(3)
+                if command == "crash":
+                    os.kill(os.getpid(), signal.SIGKILL)
+                if command == "wait":
+                    print("started", flush=True)
+                    while not os.path.exists(argv[1] + ".go"):
+                        time.sleep(0.01)
+                    print("finished")
+
+
+            if __name__ == '__main__':
+                main(sys.argv)
+            """;
+
+    @TempDir
+    Path dir;
+
+    private ModelProcessLauncher launcher;
+    private ModelRegistry.Lease model;
+
+    @BeforeEach
+    void setUp() throws IOException, InterruptedException {
+        assumeTrue(pythonAvailable(), "python3 not available");
+        Files.writeString(dir.resolve("test_model.py"), SCRIPT);
+
+        model = mock(ModelRegistry.Lease.class);
+        when(model.name()).thenReturn("test");
+        when(model.version()).thenReturn(1);
+        when(model.hash()).thenReturn("abc123");
+        when(model.directory()).thenReturn(dir);
+        when(model.script()).thenReturn(dir.resolve("test_model.py"));
+
+        launcher = newLauncher(true, 30);
+    }
+
+    private static ModelProcessLauncher newLauncher(boolean zygoteEnabled, long callTimeoutSeconds) throws IOException {
+        ModelProcessLauncher launcher = new ModelProcessLauncher();
+        ReflectionTestUtils.setField(launcher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(launcher, "pythonExecutable", "python3");
+        ReflectionTestUtils.setField(launcher, "callTimeoutSeconds", callTimeoutSeconds);
+        ReflectionTestUtils.setField(launcher, "zygoteEnabled", zygoteEnabled);
+        ReflectionTestUtils.setField(launcher, "restartDelayMillis", 60_000L);
+        ReflectionTestUtils.setField(launcher, "maxCalls", 0);
+        ReflectionTestUtils.setField(launcher, "maxMemoryMb", 0L);
+        ReflectionTestUtils.setField(launcher, "maxChildMemoryMb", 0L);
+        ReflectionTestUtils.setField(launcher, "memoryPollMillis", 0L);
+        launcher.init();
+        return launcher;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (launcher != null) {
+            launcher.shutdown();
+        }
+    }
+
+    @Test
+    void forkedCallPrintsWhatASpawnedScriptPrintsWithoutTheExitLine() throws Exception {
+        // The zygote is still preloading on the first call, so that one spawns the script
+        Result first = run("echo");
+        awaitZygoteReady();
+        Result forked = run("echo");
+
+        assertThat(forked.lines()).containsExactly("preloaded=1", "out line", "err line");
+        assertThat(forked.exitCode()).isEqualTo(3);
+        assertThat(first.lines().subList(1, first.lines().size())).isEqualTo(forked.lines().subList(1, 3));
+        assertThat(first.exitCode()).isEqualTo(3);
+    }
+
+    @Test
+    void childKilledBySignalReportsNegativeExitCode() throws Exception {
+        run("echo");
+        awaitZygoteReady();
+
+        Result crashed = run("crash");
+
+        assertThat(crashed.lines()).containsExactly("preloaded=1");
+        assertThat(crashed.exitCode()).isEqualTo(-9);
+        // The zygote survives its child
+        assertThat(run("echo").exitCode()).isEqualTo(3);
+    }
+
+    @Test
+    void zygoteDyingBeforeReportingGivesMinusOne() throws Exception {
+        run("echo");
+        Object zygote = awaitZygoteReady();
+        File input = dir.resolve("wait.txt").toFile();
+        Files.writeString(input.toPath(), "wait");
+
+        try (ModelProcessLauncher.ModelProcess process = launcher.start(model, input, Map.of())) {
+            assertThat(process.output().readLine()).isEqualTo("preloaded=1");
+            assertThat(process.output().readLine()).isEqualTo("started");
+
+            Process zygoteProcess = (Process) ReflectionTestUtils.getField(zygote, "process");
+            zygoteProcess.destroyForcibly();
+            assertThat(zygoteProcess.waitFor(10, TimeUnit.SECONDS)).isTrue();
+            Files.createFile(Path.of(input.getPath() + ".go"));
+
+            assertThat(process.output().readLine()).isEqualTo("finished");
+            assertThat(process.output().readLine()).isNull();
+            assertThat(process.waitFor()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void hungSpawnedScriptIsKilledAtTheDeadline() throws Exception {
+        launcher.shutdown();
+        launcher = newLauncher(false, 2);
+
+        try (ModelProcessLauncher.ModelProcess process = launcher.start(model, waitInput(), Map.of())) {
+            assertThat(process.output().readLine()).isEqualTo("preloaded=0");
+            assertThat(process.output().readLine()).isEqualTo("started");
+
+            long start = System.nanoTime();
+            assertThat(process.output().readLine()).isNull();
+            assertThatThrownBy(process::waitFor).isInstanceOf(IOException.class).hasMessageContaining("timed out");
+            assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(10);
+        }
+    }
+
+    @Test
+    void hungForkedChildFailsAtTheDeadline() throws Exception {
+        launcher.shutdown();
+        launcher = newLauncher(true, 2);
+        run("echo");
+        awaitZygoteReady();
+
+        try (ModelProcessLauncher.ModelProcess process = launcher.start(model, waitInput(), Map.of())) {
+            assertThat(process.output().readLine()).isEqualTo("preloaded=1");
+            assertThat(process.output().readLine()).isEqualTo("started");
+
+            // The zygote's SIGALRM and the backend's own deadline fire together; either ends the call
+            long start = System.nanoTime();
+            try {
+                assertThat(process.output().readLine()).isNull();
+                assertThat(process.waitFor()).isEqualTo(-14);
+            } catch (IOException e) {
+                assertThat(e).hasMessageContaining("timed out");
+            }
+            assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(10);
+        }
+    }
+
+    @Test
+    void closingASpawnedCallKillsTheScript() throws Exception {
+        launcher.shutdown();
+        launcher = newLauncher(false, 30);
+
+        Process script;
+        try (ModelProcessLauncher.ModelProcess process = launcher.start(model, waitInput(), Map.of())) {
+            assertThat(process.output().readLine()).isEqualTo("preloaded=0");
+            script = (Process) ReflectionTestUtils.getField(process, "process");
+        }
+
+        assertThat(script.waitFor(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private File waitInput() throws IOException {
+        File input = Files.createTempFile(dir, "wait", ".txt").toFile();
+        Files.writeString(input.toPath(), "wait");
+        return input;
+    }
+
+    private record Result(List<String> lines, int exitCode) {
+    }
+
+    private Result run(String command) throws Exception {
+        File input = Files.createTempFile(dir, "input", ".txt").toFile();
+        Files.writeString(input.toPath(), command);
+        try (ModelProcessLauncher.ModelProcess process = launcher.start(model, input, Map.of())) {
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = process.output().readLine()) != null) {
+                lines.add(line);
+            }
+            return new Result(lines, process.waitFor());
+        }
+    }
+
+    private Object awaitZygoteReady() throws InterruptedException {
+        Map<?, ?> zygotes = (Map<?, ?>) ReflectionTestUtils.getField(launcher, "zygotes");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Object zygote = zygotes.get("test");
+            if (zygote != null && (boolean) ReflectionTestUtils.getField(zygote, "ready")) {
+                return zygote;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("zygote did not become ready");
+    }
+
+    private static boolean pythonAvailable() throws InterruptedException {
+        try {
+            return new ProcessBuilder("python3", "--version").start().waitFor() == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.config.RateLimitProperties;
+import com.Shubham.ai_chatbot_backend.exception.RateLimitExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class RateLimitServiceTest {
+
+    private RateLimitProperties properties;
+    private RateLimitService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setEndpoints(Map.of("chat", new RateLimitProperties.Limit(3, 6)));
+        service = new RateLimitService();
+        ReflectionTestUtils.setField(service, "properties", properties);
+        service.init();
+    }
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        for (int i = 0; i < 3; i++) {
+            service.checkLimit(1L, "chat");
+        }
+
+        RateLimitExceededException e = catchThrowableOfType(RateLimitExceededException.class,
+                () -> service.checkLimit(1L, "chat"));
+        assertThat(e.getEndpoint()).isEqualTo("chat");
+        // 6 per minute: the next token is at most 10s away
+        assertThat(e.getRetryAfterSeconds()).isBetween(1L, 11L);
+    }
+
+    @Test
+    void bucketsAreIndependentPerUserAndEndpoint() {
+        for (int i = 0; i < 3; i++) {
+            service.checkLimit(1L, "chat");
+        }
+
+        service.checkLimit(2L, "chat");
+        // Falls back to the defaults (30) for endpoints without their own limit
+        service.checkLimit(1L, "weather-prediction");
+        assertThatThrownBy(() -> service.checkLimit(1L, "chat")).isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void disabledOrAnonymousIsNeverLimited() {
+        for (int i = 0; i < 10; i++) {
+            service.checkLimit(null, "chat");
+        }
+
+        properties.setEnabled(false);
+        for (int i = 0; i < 10; i++) {
+            service.checkLimit(1L, "chat");
+        }
+    }
+
+    @Test
+    void bucketRefillsAtConfiguredRate() {
+        RateLimitService.TokenBucket bucket = new RateLimitService.TokenBucket(2, 60);
+        long start = System.nanoTime();
+
+        assertThat(bucket.tryConsume(start)).isZero();
+        assertThat(bucket.tryConsume(start)).isZero();
+        // Empty: one token per second at 60/min
+        long wait = bucket.tryConsume(start);
+        assertThat(wait).isBetween(TimeUnit.MILLISECONDS.toNanos(999), TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(bucket.tryConsume(start + TimeUnit.SECONDS.toNanos(1))).isZero();
+        // Refill never exceeds capacity, however long the bucket was idle
+        long later = start + TimeUnit.HOURS.toNanos(1);
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isPositive();
+    }
+
+    @Test
+    void idleBucketExpiresOnlyOnceFullyRefilled() {
+        RateLimitService.TokenBucket bucket = new RateLimitService.TokenBucket(3, 6);
+        // 3 tokens at 6/min take 30s to come back
+        assertThat(bucket.fullRefillNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(30));
+    }
+}
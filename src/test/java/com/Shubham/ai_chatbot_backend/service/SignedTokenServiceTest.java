@@ -0,0 +1,109 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.model.SessionInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignedTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private SignedTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        service = newService(SECRET);
+    }
+
+    private static SignedTokenService newService(String secret) {
+        SignedTokenService service = new SignedTokenService();
+        ReflectionTestUtils.setField(service, "sessionMode", "signed");
+        ReflectionTestUtils.setField(service, "signingSecret", secret);
+        service.init();
+        return service;
+    }
+
+    @Test
+    void issuedTokenVerifiesToItsSession() {
+        String token = service.issue(42L, "alice:with:colons", LocalDateTime.now().plusHours(1));
+
+        SessionInfo info = service.verify(token);
+        assertThat(info).isNotNull();
+        assertThat(info.userId()).isEqualTo(42L);
+        assertThat(info.username()).isEqualTo("alice:with:colons");
+        assertThat(info.isExpired()).isFalse();
+    }
+
+    @Test
+    void rejectsTamperedForgedAndMalformedTokens() {
+        String token = service.issue(42L, "alice", LocalDateTime.now().plusHours(1));
+        String otherPayload = service.issue(1L, "admin", LocalDateTime.now().plusHours(1)).split("\\.")[0];
+
+        assertThat(service.verify(otherPayload + token.substring(token.indexOf('.')))).isNull();
+        assertThat(newService("another-secret-of-at-least-32-chars").verify(token)).isNull();
+        assertThat(service.verify(null)).isNull();
+        assertThat(service.verify("no-dot")).isNull();
+        assertThat(service.verify(".sig")).isNull();
+        assertThat(service.verify("payload.")).isNull();
+        assertThat(service.verify("!!!.???")).isNull();
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        String token = service.issue(42L, "alice", LocalDateTime.now().minusSeconds(1));
+        assertThat(service.verify(token)).isNull();
+    }
+
+    @Test
+    void revokedTokenStaysRevoked() {
+        String token = service.issue(42L, "alice", LocalDateTime.now().plusHours(1));
+        String other = service.issue(43L, "bob", LocalDateTime.now().plusHours(1));
+
+        assertThat(service.revoke(token)).isTrue();
+        assertThat(service.verify(token)).isNull();
+        assertThat(service.revoke(token)).isFalse();
+        assertThat(service.verify(other)).isNotNull();
+    }
+
+    @Test
+    void revocationIsForgottenOnceTheTokenExpires() throws InterruptedException {
+        String token = service.issue(42L, "alice", LocalDateTime.now().plusSeconds(1));
+        assertThat(service.revoke(token)).isTrue();
+
+        Cache<?, ?> revoked = (Cache<?, ?>) ReflectionTestUtils.getField(service, "revoked");
+        assertThat(revoked.estimatedSize()).isEqualTo(1);
+        Thread.sleep(1_100);
+        revoked.cleanUp();
+        assertThat(revoked.estimatedSize()).isZero();
+    }
+
+    @Test
+    void alternativeEncodingsOfTheSignatureAreRejected() {
+        String token = service.issue(42L, "alice", LocalDateTime.now().plusHours(1));
+        service.revoke(token);
+
+        // 32-byte MAC -> 43 base64url chars; the last one carries 2 unused low bits
+        String padded = token + "=";
+        char last = token.charAt(token.length() - 1);
+        String flipped = token.substring(0, token.length() - 1) + flipLowBit(last);
+
+        assertThat(service.verify(padded)).isNull();
+        assertThat(service.verify(flipped)).isNull();
+    }
+
+    @Test
+    void nonCanonicalSignatureIsRejectedEvenBeforeRevocation() {
+        String token = service.issue(42L, "alice", LocalDateTime.now().plusHours(1));
+        assertThat(service.verify(token + "=")).isNull();
+    }
+
+    private static char flipLowBit(char c) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        return alphabet.charAt(alphabet.indexOf(c) ^ 1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserActivityServiceTest {
+
+    private UserActivityService service;
+    private final AtomicLong flushedMessages = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE users"), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            rows.forEach(row -> flushedMessages.addAndGet((Long) row[0]));
+            return new int[rows.size()];
+        });
+
+        service = new UserActivityService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionManager", mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void idleEntriesAreDroppedAfterAnEmptyFlush() {
+        service.recordMessage(1L);
+        service.recordToolUsage(2L, "car");
+
+        service.flush();
+        assertThat(pending()).hasSize(2);
+
+        service.flush();
+        assertThat(pending()).isEmpty();
+        assertThat(flushedMessages.get()).isEqualTo(1);
+    }
+
+    @Test
+    void noIncrementIsLostWhileFlushesRemoveEntries() throws Exception {
+        int threads = 4;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicBoolean recording = new AtomicBoolean(true);
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    // Few users, so entries are constantly drained, removed and recreated
+                    service.recordMessage((long) (i % 3));
+                }
+                done.countDown();
+            });
+        }
+        Thread flusher = new Thread(() -> {
+            while (recording.get()) {
+                service.flush();
+            }
+        });
+        flusher.start();
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        recording.set(false);
+        flusher.join();
+        executor.shutdown();
+
+        service.flush();
+        service.flush();
+        assertThat(flushedMessages.get()).isEqualTo((long) threads * perThread);
+        assertThat(pending()).isEmpty();
+    }
+
+    private Map<?, ?> pending() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(service, "pending");
+    }
+}
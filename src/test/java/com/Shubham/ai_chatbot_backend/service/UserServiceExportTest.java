@@ -0,0 +1,45 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.model.UserListing;
+import com.Shubham.ai_chatbot_backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceExportTest {
+
+    @Test
+    void streamsAllUsersAsOneArrayWithASingleFlush() throws Exception {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.streamAllListings()).thenReturn(LongStream.rangeClosed(1, 500)
+                .mapToObj(id -> new UserListing(id, "user" + id, "user" + id + "@example.test", "🤖", null, null, 0)));
+
+        UserService service = new UserService();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+
+        FlushCountingStream out = new FlushCountingStream();
+        service.writeAllUsers(out);
+
+        assertThat(out.flushes).isEqualTo(1);
+        UserListing[] users = new ObjectMapper().readValue(out.toString(StandardCharsets.UTF_8), UserListing[].class);
+        assertThat(users).hasSize(500);
+        assertThat(users[499].username()).isEqualTo("user500");
+    }
+
+    private static final class FlushCountingStream extends ByteArrayOutputStream {
+        int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.Shubham.ai_chatbot_backend.service;
+
+import com.Shubham.ai_chatbot_backend.dto.AuthResponse;
+import com.Shubham.ai_chatbot_backend.model.User;
+import com.Shubham.ai_chatbot_backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceRegistrationTest {
+
+    private static final String DRIVER_DETAIL = "ERROR: null value in column \"email\" of relation \"users\"";
+
+    private UserRepository userRepository;
+    private UserService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+        when(passwordHashingService.hash(any())).thenReturn("hash");
+
+        service = new UserService();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "passwordHashingService", passwordHashingService);
+        ReflectionTestUtils.setField(service, "availabilityService", mock(AvailabilityService.class));
+    }
+
+    @Test
+    void constraintViolationNamesTheDuplicateField() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException(DRIVER_DETAIL));
+
+        when(userRepository.existsByEmail("taken@example.test")).thenReturn(true);
+        assertThat(service.registerUser("alice", "taken@example.test", "pw").message())
+                .isEqualTo("User with this email already exists");
+
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+        assertThat(service.registerUser("alice", "free@example.test", "pw").message())
+                .isEqualTo("Username already taken");
+    }
+
+    @Test
+    void otherFailuresDoNotBlameTheUsernameOrLeakDatabaseDetails() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException(DRIVER_DETAIL));
+
+        AuthResponse constraint = service.registerUser("alice", "alice@example.test", "pw");
+
+        when(userRepository.save(any(User.class))).thenThrow(new IllegalStateException(DRIVER_DETAIL));
+        AuthResponse unexpected = service.registerUser("alice", "alice@example.test", "pw");
+
+        for (AuthResponse response : new AuthResponse[]{constraint, unexpected}) {
+            assertThat(response.success()).isFalse();
+            assertThat(response.message()).doesNotContain("Username", "column", "relation");
+        }
+    }
+
+    @Test
+    void loginFailureDoesNotLeakDatabaseDetails() {
+        when(userRepository.findByEmail("alice@example.test")).thenThrow(new IllegalStateException(DRIVER_DETAIL));
+
+        AuthResponse response = service.loginUser("alice@example.test", "pw");
+
+        assertThat(response.success()).isFalse();
+        assertThat(response.message()).doesNotContain("column", "relation");
+    }
+}
@@ -0,0 +1,173 @@
+"""
+Accuracy and latency report for the float32 and int8 car models on a local image set.
+
+Each variant is measured in a fresh interpreter through the worker's own loading
+and preprocessing code (car_recognition.py), so load time and peak memory are what
+a worker process would see. Labels come from the folder names in
+<images>/<Brand>/*.jpg and must match the worker's CAR_BRANDS.
+
+Writes report.json and report.md to --output-dir.
+
+Usage:
+    python compare_car_models.py --models-dir src/main/resources/models \
+        --images data/car-eval --output-dir target/car-model-report
+"""
+import argparse
+import json
+import os
+import resource
+import subprocess
+import sys
+import time
+
+VARIANTS = [
+    ('float32', 'car_model.h5'),
+    ('int8', 'car_model_int8.tflite'),
+]
+
+IMAGE_EXTENSIONS = ('.jpg', '.jpeg', '.png', '.bmp', '.webp')
+
+
+def list_images(images_dir):
+    labelled = []
+    for brand in sorted(os.listdir(images_dir)):
+        brand_dir = os.path.join(images_dir, brand)
+        if not os.path.isdir(brand_dir):
+            continue
+        for name in sorted(os.listdir(brand_dir)):
+            if name.lower().endswith(IMAGE_EXTENSIONS):
+                labelled.append((os.path.join(brand_dir, name), brand))
+    return labelled
+
+
+def measure(models_dir, model_file, images_file):
+    """Child mode: load one variant, predict every image one at a time, print JSON."""
+    sys.path.insert(0, models_dir)
+    os.environ['CAR_MODEL_FILE'] = model_file
+    import numpy as np
+    import car_recognition
+
+    predict, error = car_recognition.load_model()
+    if error:
+        print(json.dumps(error))
+        return
+
+    with open(images_file) as f:
+        images = json.load(f)
+
+    predictions = []
+    for path, _ in images:
+        img_array, _ = car_recognition.load_input({'image_path': path})
+        started = time.perf_counter()
+        scores = predict(np.expand_dims(img_array, axis=0))[0]
+        elapsed_ms = (time.perf_counter() - started) * 1000
+        top = int(np.argmax(scores))
+        brand = car_recognition.CAR_BRANDS[top] if top < len(car_recognition.CAR_BRANDS) else 'Unknown'
+        predictions.append({'brand': brand, 'ms': elapsed_ms})
+
+    print(json.dumps({
+        'success': True,
+        'load_ms': car_recognition.TIMINGS.get('load_ms'),
+        # ru_maxrss is KiB on Linux
+        'peak_rss_mb': resource.getrusage(resource.RUSAGE_SELF).ru_maxrss / 1024,
+        'predictions': predictions,
+    }))
+
+
+def percentile(values, p):
+    ordered = sorted(values)
+    index = min(len(ordered) - 1, max(0, int(round(p / 100 * (len(ordered) - 1)))))
+    return ordered[index]
+
+
+def run_variant(models_dir, model_file, images_file):
+    output = subprocess.run(
+        [sys.executable, os.path.abspath(__file__), '--measure', model_file,
+         '--models-dir', models_dir, '--images-file', images_file],
+        capture_output=True, text=True, check=False)
+    # The worker prints progress; the result is the last JSON line
+    for line in reversed(output.stdout.splitlines()):
+        if line.startswith('{'):
+            return json.loads(line)
+    return {'success': False, 'error': output.stderr.strip()[-500:] or 'no output'}
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument('--models-dir', required=True)
+    parser.add_argument('--images')
+    parser.add_argument('--output-dir')
+    parser.add_argument('--measure', help=argparse.SUPPRESS)
+    parser.add_argument('--images-file', help=argparse.SUPPRESS)
+    args = parser.parse_args()
+    models_dir = os.path.abspath(args.models_dir)
+
+    if args.measure:
+        measure(models_dir, args.measure, args.images_file)
+        return
+
+    labelled = list_images(args.images)
+    if not labelled:
+        print(f"ERROR: no images under {args.images}; expected <images>/<Brand>/*.jpg")
+        sys.exit(1)
+
+    os.makedirs(args.output_dir, exist_ok=True)
+    images_file = os.path.join(args.output_dir, 'images.json')
+    with open(images_file, 'w') as f:
+        json.dump(labelled, f)
+
+    report = {'images': len(labelled), 'variants': {}}
+    reference = None
+    for variant, model_file in VARIANTS:
+        model_path = os.path.join(models_dir, model_file)
+        if not os.path.exists(model_path):
+            report['variants'][variant] = {'error': f'{model_file} not found'}
+            continue
+
+        print(f"Measuring {variant} ({model_file}) on {len(labelled)} images...")
+        result = run_variant(models_dir, model_file, images_file)
+        if not result.get('success'):
+            report['variants'][variant] = {'error': result.get('error')}
+            continue
+
+        brands = [p['brand'] for p in result['predictions']]
+        latencies = [p['ms'] for p in result['predictions']]
+        correct = sum(1 for brand, (_, label) in zip(brands, labelled) if brand.lower() == label.lower())
+        summary = {
+            'model_file': model_file,
+            'size_mb': round(os.path.getsize(model_path) / 1e6, 2),
+            'load_ms': result['load_ms'],
+            'peak_rss_mb': round(result['peak_rss_mb'], 1),
+            'top1_accuracy': round(correct / len(labelled), 4),
+            'latency_p50_ms': round(percentile(latencies, 50), 2),
+            'latency_p95_ms': round(percentile(latencies, 95), 2),
+        }
+        if reference is None:
+            reference = brands
+        else:
+            # How often the variant agrees with float32, independent of label quality
+            summary['agreement_with_float32'] = round(
+                sum(1 for a, b in zip(brands, reference) if a == b) / len(labelled), 4)
+        report['variants'][variant] = summary
+
+    with open(os.path.join(args.output_dir, 'report.json'), 'w') as f:
+        json.dump(report, f, indent=2)
+
+    columns = ['size_mb', 'load_ms', 'peak_rss_mb', 'top1_accuracy', 'agreement_with_float32',
+               'latency_p50_ms', 'latency_p95_ms']
+    lines = [f"# Car model variants on {len(labelled)} images", '',
+             '| variant | ' + ' | '.join(columns) + ' |',
+             '|---' * (len(columns) + 1) + '|']
+    for variant, summary in report['variants'].items():
+        if 'error' in summary:
+            lines.append(f"| {variant} | {summary['error']} |" + ' |' * (len(columns) - 1))
+        else:
+            lines.append(f"| {variant} | " + ' | '.join(str(summary.get(c, '-')) for c in columns) + ' |')
+    with open(os.path.join(args.output_dir, 'report.md'), 'w') as f:
+        f.write('\n'.join(lines) + '\n')
+
+    print('\n'.join(lines))
+
+
+if __name__ == '__main__':
+    main()
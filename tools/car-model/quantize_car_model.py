@@ -0,0 +1,83 @@
+"""
+Converts the float32 Keras car model to a full-integer (int8) TFLite model.
+
+Calibration images come from a local labelled image set laid out as
+<images>/<Brand>/*.jpg, the same set compare_car_models.py reports on. The
+converted model takes uint8 pixels and returns uint8 scores; car_recognition.py
+quantises and dequantises using the scales stored in the model.
+
+Usage:
+    python quantize_car_model.py --model car_model.h5 --images data/car-eval \
+        --output car_model_int8.tflite [--calibration-samples 200]
+"""
+import argparse
+import os
+import random
+import sys
+import time
+
+import numpy as np
+import tensorflow as tf
+
+MODELS_DIR = os.path.join(os.path.dirname(os.path.abspath(__file__)), '..', '..', 'src', 'main', 'resources', 'models')
+sys.path.insert(0, os.path.abspath(MODELS_DIR))
+
+# Same preprocessing as the worker, so calibration sees exactly what inference will
+from car_recognition import load_input  # noqa: E402
+
+IMAGE_EXTENSIONS = ('.jpg', '.jpeg', '.png', '.bmp', '.webp')
+
+
+def list_images(images_dir):
+    paths = []
+    for root, _, files in os.walk(images_dir):
+        for name in files:
+            if name.lower().endswith(IMAGE_EXTENSIONS):
+                paths.append(os.path.join(root, name))
+    return sorted(paths)
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument('--model', required=True)
+    parser.add_argument('--images', required=True)
+    parser.add_argument('--output', required=True)
+    parser.add_argument('--calibration-samples', type=int, default=200)
+    args = parser.parse_args()
+
+    images = list_images(args.images)
+    if not images:
+        print(f"ERROR: no images under {args.images}; expected <images>/<Brand>/*.jpg")
+        sys.exit(1)
+
+    # Fixed seed so the same image set always produces the same model
+    random.Random(42).shuffle(images)
+    calibration = images[:args.calibration_samples]
+    print(f"Calibrating on {len(calibration)} of {len(images)} images")
+
+    def representative_dataset():
+        for path in calibration:
+            img_array, _ = load_input({'image_path': path})
+            yield [np.expand_dims(img_array, axis=0).astype(np.float32)]
+
+    started = time.perf_counter()
+    model = tf.keras.models.load_model(args.model)
+
+    converter = tf.lite.TFLiteConverter.from_keras_model(model)
+    converter.optimizations = [tf.lite.Optimize.DEFAULT]
+    converter.representative_dataset = representative_dataset
+    converter.target_spec.supported_ops = [tf.lite.OpsSet.TFLITE_BUILTINS_INT8]
+    converter.inference_input_type = tf.uint8
+    converter.inference_output_type = tf.uint8
+    tflite_model = converter.convert()
+
+    os.makedirs(os.path.dirname(os.path.abspath(args.output)), exist_ok=True)
+    with open(args.output, 'wb') as f:
+        f.write(tflite_model)
+
+    print(f"Wrote {args.output}: {len(tflite_model) / 1e6:.1f} MB "
+          f"(float32 {os.path.getsize(args.model) / 1e6:.1f} MB) in {time.perf_counter() - started:.1f}s")
+
+
+if __name__ == '__main__':
+    main()